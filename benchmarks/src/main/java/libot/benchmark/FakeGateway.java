@@ -0,0 +1,206 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.benchmark;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static libot.benchmark.Stubs.lenient;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import libot.benchmark.Stubs.Answer;
+import libot.core.shred.Shredder.Shred;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.*;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.unions.*;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
+
+/**
+ * A set of stubbed shreds, guilds and users that produces synthetic
+ * {@link MessageReceivedEvent}s. Replies sent through the stubbed channels complete
+ * after a configurable simulated REST latency and are reported to a
+ * {@link ReplyListener}.
+ */
+public class FakeGateway {
+
+	private static final long FIRST_ID = 200000000000000000L;
+
+	@FunctionalInterface
+	public interface ReplyListener {
+
+		void onReply(long messageId);
+
+	}
+
+	private record FakeGuild(@Nonnull JDA jda, @Nonnull Guild guild, @Nonnull MessageChannelUnion channel,
+		@Nonnull Member[] members) {}
+
+	@Nonnull private final List<Shred> shreds = new ArrayList<>();
+	@Nonnull private final List<FakeGuild> guilds = new ArrayList<>();
+	@Nonnull private final AtomicLong nextId = new AtomicLong(FIRST_ID);
+	@Nonnull private final AtomicLong responseNumber = new AtomicLong();
+	@Nonnull private final ReplyListener replies;
+	private final long restLatency;
+	@Nonnull private final ScheduledExecutorService rest =
+		newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("fake-rest").setDaemon(true).build());
+
+	public FakeGateway(int shreds, int guilds, int usersPerGuild, long restLatency, @Nonnull ReplyListener replies) {
+		this.restLatency = restLatency;
+		this.replies = replies;
+
+		var jdas = new JDA[shreds];
+		for (int i = 0; i < shreds; i++) {
+			long selfId = this.nextId.getAndIncrement();
+			var selfUser = lenient(SelfUser.class, Map.of("getIdLong", selfId, "getId", Long.toString(selfId),
+														  "getName", "shred" + i, "isBot", true));
+			jdas[i] = lenient(JDA.class, Map.of("getSelfUser", selfUser, "getGatewayPing", 0L));
+			this.shreds.add(new Shred(jdas[i], "SHRED" + i));
+		}
+
+		for (int i = 0; i < guilds; i++)
+			this.guilds.add(createGuild(jdas[i % shreds], usersPerGuild));
+	}
+
+	@Nonnull
+	private FakeGuild createGuild(@Nonnull JDA jda, int users) {
+		long guildId = this.nextId.getAndIncrement();
+		var guildAnswers = new HashMap<String, Object>();
+		var guild = lenient(Guild.class, guildAnswers);
+		guildAnswers.put("getIdLong", guildId);
+		guildAnswers.put("getId", Long.toString(guildId));
+		guildAnswers.put("getName", "guild" + guildId);
+		guildAnswers.put("getJDA", jda);
+		guildAnswers.put("getSelfMember", createMember(guild, jda.getSelfUser()));
+
+		long channelId = this.nextId.getAndIncrement();
+		Answer send = (self, a) -> createAction();
+		var channelAnswers = new HashMap<String, Object>();
+		channelAnswers.put("getIdLong", channelId);
+		channelAnswers.put("getId", Long.toString(channelId));
+		channelAnswers.put("getType", ChannelType.TEXT);
+		channelAnswers.put("getGuild", guild);
+		channelAnswers.put("getJDA", jda);
+		channelAnswers.put("canTalk", true);
+		channelAnswers.put("sendMessage", send);
+		channelAnswers.put("sendMessageEmbeds", send);
+		channelAnswers.put("sendFiles", send);
+		var channel = lenient(MessageChannelUnion.class, channelAnswers, GuildMessageChannelUnion.class,
+							  TextChannel.class);
+
+		var members = new Member[users];
+		for (int i = 0; i < users; i++) {
+			long userId = this.nextId.getAndIncrement();
+			var user = lenient(User.class, Map.of("getIdLong", userId, "getId", Long.toString(userId), "getName",
+												  "user" + userId, "isBot", false, "getJDA", jda));
+			members[i] = createMember(guild, user);
+		}
+
+		return new FakeGuild(jda, guild, channel, members);
+	}
+
+	@Nonnull
+	private static Member createMember(@Nonnull Guild guild, @Nonnull User user) {
+		return lenient(Member.class, Map.of("getUser", user, "getIdLong", user.getIdLong(), "getId", user.getId(),
+											"getGuild", guild, "getEffectiveName", user.getName(), "hasPermission",
+											true, "getJDA", guild.getJDA()));
+	}
+
+	@Nonnull
+	private MessageCreateAction createAction() {
+		var reference = new AtomicLong();
+		return lenient(MessageCreateAction.class, Map.of("setMessageReference", (Answer) (self, a) -> {
+			if (a[0] instanceof Message m)
+				reference.set(m.getIdLong());
+			return self;
+		}, "submit", (Answer) (self, a) -> submit(reference.get())));
+	}
+
+	@Nonnull
+	private CompletableFuture<Message> submit(long referencedId) {
+		if (this.restLatency <= 0) {
+			this.replies.onReply(referencedId);
+			return completedFuture(null);
+		}
+
+		var future = new CompletableFuture<Message>();
+		this.rest.schedule(() -> {
+			this.replies.onReply(referencedId);
+			future.complete(null);
+		}, this.restLatency, MILLISECONDS);
+		return future;
+	}
+
+	@Nonnull
+	public List<Shred> getShreds() {
+		return this.shreds;
+	}
+
+	/**
+	 * Creates a message from a random user in a random guild.
+	 *
+	 * @param content
+	 *            raw message content
+	 *
+	 * @return the event
+	 */
+	@Nonnull
+	public MessageReceivedEvent createMessage(@Nonnull String content) {
+		var random = ThreadLocalRandom.current();
+		var guild = this.guilds.get(random.nextInt(this.guilds.size()));
+		var member = guild.members()[random.nextInt(guild.members().length)];
+
+		long messageId = this.nextId.getAndIncrement();
+		var message = lenient(Message.class, Map.ofEntries(Map.entry("getIdLong", messageId),
+														   Map.entry("getId", Long.toString(messageId)),
+														   Map.entry("getContentRaw", content),
+														   Map.entry("getContentDisplay", content),
+														   Map.entry("getAuthor", member.getUser()),
+														   Map.entry("getMember", member),
+														   Map.entry("getGuild", guild.guild()),
+														   Map.entry("getChannel", guild.channel()),
+														   Map.entry("getChannelType", ChannelType.TEXT),
+														   Map.entry("isFromGuild", true),
+														   Map.entry("getType", MessageType.DEFAULT),
+														   Map.entry("getJDA", guild.jda())));
+		return new MessageReceivedEvent(guild.jda(), this.responseNumber.getAndIncrement(), message);
+	}
+
+	/**
+	 * @param event
+	 *            an event created by {@link #createMessage(String)}
+	 *
+	 * @return the index of the shred that received the event
+	 */
+	public int getShredIndex(@Nonnull MessageReceivedEvent event) {
+		var jda = event.getJDA();
+		for (int i = 0; i < this.shreds.size(); i++) {
+			if (this.shreds.get(i).jda() == jda)
+				return i;
+		}
+		throw new IllegalArgumentException("The event is not from this gateway");
+	}
+
+}
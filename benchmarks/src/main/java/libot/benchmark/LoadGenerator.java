@@ -0,0 +1,243 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.benchmark;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.*;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.Nonnull;
+
+import org.eclipse.collections.api.factory.primitive.LongLists;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.slf4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import libot.core.BotConfiguration;
+import libot.core.command.CommandManager;
+import libot.core.data.impl.MemoryDataManager;
+import libot.core.data.provider.ProviderManager;
+import libot.core.entity.BotContext;
+import libot.core.listener.*;
+import libot.core.shred.Shredder;
+
+/**
+ * Replays synthetic message streams through LiBot's dispatch path (MessageListener,
+ * CommandManager, ProcessManager and the commands themselves) without a Discord
+ * connection, and reports the throughput and the latency from dispatch to the
+ * completion of the first reply.
+ */
+public class LoadGenerator {
+
+	private static final Logger LOG = getLogger(LoadGenerator.class);
+
+	private static final String PREFIX = "*";
+	private static final String USAGE = """
+		Usage: LoadGenerator [options]
+		  --rate <n>          messages per second, 0 for as fast as possible (default 1000)
+		  --duration <s>      how long to generate load for (default 10)
+		  --shreds <n>        number of fake shreds (default 2)
+		  --guilds <n>        number of fake guilds (default 1000)
+		  --users <n>         number of fake users per guild (default 50)
+		  --rest-latency <ms> simulated REST latency of replies (default 0)
+		  --chatter <ratio>   fraction of messages that aren't commands (default 0.5)
+		  --commands <list>   comma-separated command lines to send (default "dice,dice 20,lenny")""";
+
+	private static final class Options {
+
+		private long rate = 1000;
+		private long duration = 10;
+		private int shreds = 2;
+		private int guilds = 1000;
+		private int users = 50;
+		private long restLatency = 0;
+		private double chatter = 0.5;
+		@Nonnull private List<String> commands = List.of("dice", "dice 20", "lenny");
+
+	}
+
+	@Nonnull private final Options options;
+	@Nonnull private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+	@Nonnull private final MutableLongList latencies = LongLists.mutable.empty();
+	@Nonnull private final LongAdder dispatched = new LongAdder();
+	@Nonnull private final LongAdder chatter = new LongAdder();
+	@Nonnull private final AtomicLong lastCompletion = new AtomicLong(Long.MIN_VALUE);
+
+	private LoadGenerator(@Nonnull Options options) {
+		this.options = options;
+	}
+
+	@SuppressWarnings("java:S106")
+	public static void main(String[] args) throws InterruptedException {
+		if (List.of(args).contains("--help")) {
+			System.out.println(USAGE);
+			return;
+		}
+
+		Options options;
+		try {
+			options = parseOptions(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			System.exit(1);
+			return;
+		}
+
+		new LoadGenerator(options).run();
+		System.exit(0);
+	}
+
+	@Nonnull
+	private static Options parseOptions(@Nonnull String[] args) {
+		var options = new Options();
+		for (int i = 0; i < args.length; i += 2) {
+			if (i + 1 >= args.length)
+				throw new IllegalArgumentException("Missing a value for " + args[i]);
+
+			var value = args[i + 1];
+			try {
+				switch (args[i]) {
+					case "--rate" -> options.rate = Long.parseLong(value);
+					case "--duration" -> options.duration = Long.parseLong(value);
+					case "--shreds" -> options.shreds = Integer.parseInt(value);
+					case "--guilds" -> options.guilds = Integer.parseInt(value);
+					case "--users" -> options.users = Integer.parseInt(value);
+					case "--rest-latency" -> options.restLatency = Long.parseLong(value);
+					case "--chatter" -> options.chatter = Double.parseDouble(value);
+					case "--commands" -> options.commands = List.of(value.split(","));
+					default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid value for " + args[i] + ": " + value, e);
+			}
+		}
+
+		if (options.shreds < 1 || options.guilds < 1 || options.users < 1)
+			throw new IllegalArgumentException("There must be at least one shred, guild and user");
+		return options;
+	}
+
+	@SuppressWarnings("java:S106")
+	private void run() throws InterruptedException {
+		var o = this.options;
+		LOG.info("Setting up {} shreds, {} guilds and {} users per guild", o.shreds, o.guilds, o.users);
+		var gateway = new FakeGateway(o.shreds, o.guilds, o.users, o.restLatency, this::onReply);
+		var data = new MemoryDataManager();
+		var shredder = new Shredder(gateway.getShreds());
+		var providers = ProviderManager.fromClasspath(shredder, data);
+		providers.loadAll();
+		var bot = new BotContext(new BotConfiguration(PREFIX, new long[0]), CommandManager.fromClasspath(), data,
+								 shredder, providers, new EventWaiterListener());
+		var listener = new MessageListener(bot);
+
+		// like JDA, every shred dispatches its events on a single thread
+		var dispatchers = new ExecutorService[o.shreds];
+		for (int i = 0; i < o.shreds; i++) {
+			dispatchers[i] =
+				Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("fake-shred-" + i).build());
+		}
+
+		LOG.info("Generating load for {} s", o.duration);
+		long interval = o.rate > 0 ? SECONDS.toNanos(1) / o.rate : 0;
+		long start = nanoTime();
+		long end = start + SECONDS.toNanos(o.duration);
+		long next = start;
+		var random = ThreadLocalRandom.current();
+		while (nanoTime() < end) {
+			boolean isChatter = random.nextDouble() < o.chatter;
+			var content = isChatter ? "just chatting" : PREFIX + o.commands.get(random.nextInt(o.commands.size()));
+			var event = gateway.createMessage(content);
+			if (isChatter)
+				this.chatter.increment();
+			else
+				this.pending.put(event.getMessageIdLong(), nanoTime());
+
+			dispatchers[gateway.getShredIndex(event)].execute(() -> listener.onMessageReceived(event));
+			this.dispatched.increment();
+
+			if (interval > 0) {
+				next += interval;
+				long wait = next - nanoTime();
+				if (wait > 0)
+					LockSupport.parkNanos(wait);
+			}
+		}
+		long elapsed = nanoTime() - start;
+
+		// give in-flight commands some time to finish
+		long drainEnd = nanoTime() + SECONDS.toNanos(10);
+		while (!this.pending.isEmpty() && nanoTime() < drainEnd)
+			MILLISECONDS.sleep(10);
+
+		for (var dispatcher : dispatchers)
+			dispatcher.shutdownNow();
+
+		// completions made while draining count too, so the throughput is measured up to the last one of them
+		long lastCompletion = this.lastCompletion.get();
+		long completed = lastCompletion == Long.MIN_VALUE ? elapsed : lastCompletion - start;
+		report(elapsed, completed);
+	}
+
+	private void onReply(long messageId) {
+		var started = this.pending.remove(messageId);
+		if (started == null)
+			return; // not the first reply
+
+		long now = nanoTime();
+		synchronized (this.latencies) {
+			this.latencies.add(now - started);
+		}
+		this.lastCompletion.accumulateAndGet(now, Math::max);
+	}
+
+	@SuppressWarnings("java:S106")
+	private void report(long elapsed, long completed) {
+		long[] sorted;
+		synchronized (this.latencies) {
+			sorted = this.latencies.toSortedArray();
+		}
+		double seconds = elapsed / 1e9;
+		long commands = this.dispatched.sum() - this.chatter.sum();
+
+		System.out.printf("Dispatched %d messages (%d commands, %d chatter) in %.2f s%n", this.dispatched.sum(),
+						  commands, this.chatter.sum(), seconds);
+		System.out.printf("Completed %d commands in %.2f s, %.1f commands/s%n", sorted.length, completed / 1e9,
+						  sorted.length / (completed / 1e9));
+		if (sorted.length > 0) {
+			System.out.printf("Latency (dispatch to reply): p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+							  millis(percentile(sorted, 0.5)), millis(percentile(sorted, 0.9)),
+							  millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1]));
+		}
+		if (!this.pending.isEmpty())
+			System.out.printf("%d commands didn't reply%n", this.pending.size());
+	}
+
+	private static long percentile(@Nonnull long[] sorted, double percentile) {
+		return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1e6;
+	}
+
+}
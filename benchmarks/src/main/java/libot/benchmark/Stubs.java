@@ -0,0 +1,134 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import javax.annotation.*;
+
+public final class Stubs {
+
+	private static final String FORMAT_UNSTUBBED = "%s.%s() is not stubbed";
+
+	@FunctionalInterface
+	public interface Answer {
+
+		@Nullable
+		Object answer(@Nonnull Object self, @Nonnull Object[] args);
+
+	}
+
+	/**
+	 * Creates a proxy of an interface that answers method calls by their name. Values
+	 * that are {@link Answer}s are invoked with the call's arguments, other values
+	 * (including {@code null}) are returned as-is. Calls to methods that aren't present
+	 * in {@code answers} throw an {@link UnsupportedOperationException}.
+	 *
+	 * @param <T>
+	 *            interface type
+	 * @param type
+	 *            interface class
+	 * @param answers
+	 *            return values, keyed by method name
+	 *
+	 * @return the stub
+	 */
+	@Nonnull
+	public static <T> T stub(@Nonnull Class<T> type, @Nonnull Map<String, Object> answers) {
+		return create(type, answers, false);
+	}
+
+	/**
+	 * Like {@link #stub(Class, Map)}, but calls to methods that aren't present in
+	 * {@code answers} return the stub itself if its type allows it (so fluent calls
+	 * chain), or else {@code false}, zero or {@code null}.
+	 *
+	 * @param <T>
+	 *            interface type
+	 * @param type
+	 *            interface class
+	 * @param answers
+	 *            return values, keyed by method name
+	 * @param extraTypes
+	 *            additional interfaces the stub should implement
+	 *
+	 * @return the stub
+	 */
+	@Nonnull
+	public static <T> T lenient(@Nonnull Class<T> type, @Nonnull Map<String, Object> answers,
+								@Nonnull Class<?>... extraTypes) {
+		return create(type, answers, true, extraTypes);
+	}
+
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	private static <T> T create(@Nonnull Class<T> type, @Nonnull Map<String, Object> answers, boolean lenient,
+								@Nonnull Class<?>... extraTypes) {
+		var types = new Class<?>[extraTypes.length + 1];
+		types[0] = type;
+		System.arraycopy(extraTypes, 0, types, 1, extraTypes.length);
+
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), types, (proxy, method, args) -> {
+			if (answers.containsKey(method.getName())) {
+				var answer = answers.get(method.getName());
+				if (answer instanceof Answer a)
+					return a.answer(proxy, args == null ? new Object[0] : args);
+				else
+					return answer;
+			}
+
+			return switch (method.getName()) {
+				case "hashCode" -> System.identityHashCode(proxy);
+				case "equals" -> proxy == args[0];
+				case "toString" -> type.getSimpleName() + "Stub";
+				default -> {
+					if (!lenient)
+						throw new UnsupportedOperationException(FORMAT_UNSTUBBED.formatted(type.getSimpleName(),
+																						 method.getName()));
+					yield defaultValue(method.getReturnType(), proxy);
+				}
+			};
+		});
+	}
+
+	@Nullable
+	private static Object defaultValue(@Nonnull Class<?> returnType, @Nonnull Object proxy) {
+		if (returnType.isInstance(proxy))
+			return proxy;
+		else if (returnType == boolean.class)
+			return false;
+		else if (returnType == long.class)
+			return 0L;
+		else if (returnType == int.class)
+			return 0;
+		else if (returnType == double.class)
+			return 0D;
+		else if (returnType == float.class)
+			return 0F;
+		else if (returnType == short.class)
+			return (short) 0;
+		else if (returnType == byte.class)
+			return (byte) 0;
+		else if (returnType == char.class)
+			return (char) 0;
+		else
+			return null;
+	}
+
+	private Stubs() {}
+
+}
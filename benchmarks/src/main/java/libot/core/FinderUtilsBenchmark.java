@@ -0,0 +1,117 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core;
+
+import static libot.benchmark.Stubs.stub;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import libot.benchmark.Stubs.Answer;
+import net.dv8tion.jda.api.entities.*;
+import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FinderUtilsBenchmark {
+
+	private static final String[] SYLLABLES =
+		{ "ka", "zu", "mi", "ro", "te", "la", "ne", "so", "vi", "da", "po", "ri", "xe", "ga", "lu", "fo" };
+	private static final long FIRST_ID = 100000000000000000L;
+
+	@Param({ "100000" })
+	public int members;
+
+	private SnowflakeCacheView<Member> cache;
+	private String exact;
+	private String id;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		var random = new Random(0);
+		var list = new ArrayList<Member>(this.members);
+		var byId = new HashMap<Long, Member>();
+		for (int i = 0; i < this.members; i++) {
+			long memberId = FIRST_ID + i;
+			var name = randomName(random);
+			var user = stub(User.class, Map.of("getName", name, "getIdLong", memberId));
+
+			var answers = new HashMap<String, Object>();
+			answers.put("getUser", user);
+			answers.put("getIdLong", memberId);
+			// a third of the members have a nickname
+			var nickname = random.nextInt(3) == 0 ? randomName(random) : null;
+			answers.put("getNickname", nickname);
+			answers.put("getEffectiveName", nickname == null ? name : nickname);
+
+			var member = stub(Member.class, answers);
+			list.add(member);
+			byId.put(memberId, member);
+		}
+
+		this.exact = list.get(this.members / 2).getEffectiveName();
+		this.id = Long.toString(FIRST_ID + this.members / 3);
+		Answer stream = (s, a) -> list.stream();
+		Answer getElementById = (s, a) -> a[0] instanceof Long l ? byId.get(l) : null;
+		this.cache = stub(SnowflakeCacheView.class, Map.of("stream", stream, "getElementById", getElementById));
+	}
+
+	private static String randomName(Random random) {
+		var sb = new StringBuilder();
+		int length = 2 + random.nextInt(4);
+		for (int i = 0; i < length; i++)
+			sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+		return sb.toString();
+	}
+
+	@Benchmark
+	public List<Member> findExact() {
+		return FinderUtils.findMembers(this.cache, this.exact);
+	}
+
+	@Benchmark
+	public List<Member> findPrefix() {
+		return FinderUtils.findMembers(this.cache, "kazu");
+	}
+
+	@Benchmark
+	public List<Member> findSubstring() {
+		return FinderUtils.findMembers(this.cache, "miro");
+	}
+
+	@Benchmark
+	public List<Member> findNothing() {
+		return FinderUtils.findMembers(this.cache, "qqqq");
+	}
+
+	@Benchmark
+	public List<Member> findById() {
+		return FinderUtils.findMembers(this.cache, this.id);
+	}
+
+	@Benchmark
+	public List<Member> findByMention() {
+		return FinderUtils.findMembers(this.cache, "<@" + this.id + ">");
+	}
+
+}
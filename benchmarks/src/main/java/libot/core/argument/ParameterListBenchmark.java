@@ -0,0 +1,65 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.argument;
+
+import static libot.core.argument.ParameterList.Parameter.*;
+import static libot.core.argument.ParameterList.Parameter.ParameterType.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import libot.core.argument.ParameterList.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParameterListBenchmark {
+
+	private static final MandatoryParameter POS_FIRST = mandatory(POSITIONAL, "p1", "");
+	private static final MandatoryParameter POS_SECOND = mandatory(POSITIONAL, "p2", "");
+	private static final Parameter POS_OPT = optional(POSITIONAL, "po", "");
+	private static final MandatoryParameter NAM_FIRST = mandatory(NAMED, "n1", "");
+	private static final Parameter NAM_OPT = optional(NAMED, "no", "");
+
+	private final ParameterList single = ParameterList.of(POS_FIRST);
+	private final ParameterList positional = ParameterList.of(POS_FIRST, POS_SECOND, POS_OPT);
+	private final ParameterList mixed = ParameterList.of(NAM_FIRST, NAM_OPT, POS_FIRST, POS_SECOND);
+
+	@Benchmark
+	public ArgumentList parseEmpty() {
+		return this.single.parse("");
+	}
+
+	@Benchmark
+	public ArgumentList parseSingle() {
+		return this.single.parse("some fairly long argument that spans a few words");
+	}
+
+	@Benchmark
+	public ArgumentList parsePositional() {
+		return this.positional.parse("first second and the rest of the message");
+	}
+
+	@Benchmark
+	public ArgumentList parseMixed() {
+		return this.mixed.parse("first --n1 named second and the rest --no optional");
+	}
+
+}
@@ -0,0 +1,53 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.command;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandManagerBenchmark {
+
+	private CommandManager commands;
+
+	@Setup
+	public void setup() {
+		this.commands = CommandManager.fromClasspath();
+	}
+
+	@Benchmark
+	public Optional<Command> getByName() {
+		return this.commands.get("help");
+	}
+
+	@Benchmark
+	public Optional<Command> getByNameMixedCase() {
+		return this.commands.get("HeLp");
+	}
+
+	@Benchmark
+	public Optional<Command> getMissing() {
+		return this.commands.get("nonexistent");
+	}
+
+}
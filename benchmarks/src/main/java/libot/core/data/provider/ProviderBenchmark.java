@@ -0,0 +1,82 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.data.provider;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.gson.reflect.TypeToken;
+
+import libot.core.data.DataManager;
+import libot.core.data.impl.MemoryDataManager;
+import libot.core.shred.Shredder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProviderBenchmark {
+
+	public static record Entry(@Nonnull String name, long balance, boolean flag, @Nonnull List<Long> ids) {}
+
+	public static class EntryProvider extends MapProvider<Long, Entry> {
+
+		public EntryProvider(@Nonnull Shredder shredder, @Nonnull DataManager dataManager) {
+			super(shredder, dataManager, new TypeToken<>() {}, "benchmark");
+		}
+
+	}
+
+	@Param({ "1000", "100000" })
+	public int entries;
+
+	private EntryProvider provider;
+
+	@Setup
+	@SuppressWarnings("null")
+	public void setup() {
+		var dataManager = new MemoryDataManager();
+		this.provider = new EntryProvider(new Shredder(List.of()), dataManager);
+		this.provider.load();
+
+		var random = new Random(0);
+		for (long i = 0; i < this.entries; i++) {
+			var ids = List.of(random.nextLong(), random.nextLong());
+			this.provider.getData().put(i, new Entry("entry" + i, random.nextLong(), random.nextBoolean(), ids));
+		}
+		this.provider.markDirty();
+		this.provider.store();
+	}
+
+	@Benchmark
+	public void store() {
+		this.provider.markDirty();
+		this.provider.store();
+	}
+
+	@Benchmark
+	public int load() {
+		this.provider.load();
+		return this.provider.size();
+	}
+
+}
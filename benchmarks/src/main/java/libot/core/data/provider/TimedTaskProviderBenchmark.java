@@ -0,0 +1,88 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.data.provider;
+
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.DAYS;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.gson.reflect.TypeToken;
+
+import libot.core.data.DataManager;
+import libot.core.data.impl.MemoryDataManager;
+import libot.core.data.provider.TimedTaskProvider.TimedTask;
+import libot.core.shred.Shredder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimedTaskProviderBenchmark {
+
+	public static record Task(long id, long endTime) implements TimedTask {}
+
+	public static class TaskProvider extends TimedTaskProvider<Task> {
+
+		public TaskProvider(@Nonnull Shredder shredder, @Nonnull DataManager dataManager) {
+			super(shredder, dataManager, new TypeToken<>() {}, "benchmark", "benchmark");
+		}
+
+		@Override
+		public void onExpiry(Task task) {
+			// tasks are far in the future and never expire
+		}
+
+	}
+
+	@Param({ "10", "1000", "10000" })
+	public int tasks;
+
+	private TaskProvider provider;
+	private Task task;
+
+	@Setup
+	@SuppressWarnings("null")
+	public void setup() {
+		this.provider = new TaskProvider(new Shredder(List.of()), new MemoryDataManager());
+		this.provider.load();
+
+		long end = currentTimeMillis() + DAYS.toMillis(1);
+		for (int i = 0; i < this.tasks; i++)
+			this.provider.getData().add(new Task(i, end + i));
+		this.provider.restartService();
+		this.task = new Task(-1, end);
+	}
+
+	@TearDown
+	public void teardown() {
+		this.provider.shutdown();
+	}
+
+	@Benchmark
+	public boolean registerAndDeregister() {
+		this.provider.register(this.task);
+		return this.provider.deregister(this.task);
+	}
+
+}
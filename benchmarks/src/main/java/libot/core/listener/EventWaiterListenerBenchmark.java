@@ -0,0 +1,79 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.listener;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import libot.benchmark.Stubs;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventWaiterListenerBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int waiters;
+
+	private EventWaiterListener listener;
+	private List<Thread> threads;
+	private GenericEvent event;
+
+	@Setup
+	public void setup() throws InterruptedException {
+		this.listener = new EventWaiterListener();
+		// none of the waiters accept this event, so every one of them is tested on each call
+		this.event = Stubs.stub(GenericEvent.class, Map.of());
+
+		var started = new CountDownLatch(this.waiters);
+		this.threads = new ArrayList<>(this.waiters);
+		for (int i = 0; i < this.waiters; i++) {
+			this.threads.add(Thread.ofVirtual().start(() -> {
+				started.countDown();
+				try {
+					this.listener.awaitEvent(e -> true, null, 0, null, MessageReceivedEvent.class);
+				} catch (Exception e) {
+					// interrupted on teardown
+				}
+			}));
+		}
+		started.await();
+		while (this.listener.getWaiterCount() < this.waiters)
+			MILLISECONDS.sleep(1);
+	}
+
+	@TearDown
+	public void teardown() throws InterruptedException {
+		this.threads.forEach(Thread::interrupt);
+		for (var thread : this.threads)
+			thread.join();
+	}
+
+	@Benchmark
+	public void onEvent() {
+		this.listener.onEvent(this.event);
+	}
+
+}
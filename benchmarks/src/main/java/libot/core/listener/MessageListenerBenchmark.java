@@ -0,0 +1,73 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.listener;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import libot.core.listener.MessageListener.Prefix;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageListenerBenchmark {
+
+	private static final long SELF_ID = 1000000000000000000L;
+
+	private final Prefix prefix = new Prefix("*", SELF_ID);
+	private final String chatter = "just a regular message that doesn't invoke any command at all";
+	private final String command = "*play never gonna give you up";
+	private final String mention = "<@" + SELF_ID + "> play never gonna give you up";
+
+	@Benchmark
+	public boolean isCommandChatter() {
+		return this.prefix.isCommand(this.chatter);
+	}
+
+	@Benchmark
+	public boolean isCommandPrefix() {
+		return this.prefix.isCommand(this.command);
+	}
+
+	@Benchmark
+	public boolean isCommandMention() {
+		return this.prefix.isCommand(this.mention);
+	}
+
+	@Benchmark
+	public void matchCommand(Blackhole blackhole) {
+		var matcher = this.prefix.getCommandCallMatcher(this.command);
+		if (matcher.matches()) {
+			blackhole.consume(matcher.group(1));
+			blackhole.consume(matcher.group(2));
+		}
+	}
+
+	@Benchmark
+	public void matchMention(Blackhole blackhole) {
+		var matcher = this.prefix.getCommandCallMatcher(this.mention);
+		if (matcher.matches()) {
+			blackhole.consume(matcher.group(1));
+			blackhole.consume(matcher.group(2));
+		}
+	}
+
+}
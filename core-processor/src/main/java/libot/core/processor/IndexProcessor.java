@@ -0,0 +1,117 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.processor;
+
+import static javax.lang.model.element.ElementKind.CLASS;
+import static javax.lang.model.element.Modifier.ABSTRACT;
+import static javax.tools.Diagnostic.Kind.ERROR;
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
+
+import java.io.IOException;
+import java.util.*;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.util.ElementFilter;
+
+@SupportedAnnotationTypes("*")
+public class IndexProcessor extends AbstractProcessor {
+
+	public static final String INDEX_PATH = "META-INF/libot/index/";
+
+	private static final List<String> SUPERTYPES = List.of("libot.core.command.Command",
+														   "libot.core.data.provider.Provider",
+														   "libot.core.data.DataManager",
+														   "libot.listener.BotEventListener",
+														   "net.dv8tion.jda.api.hooks.EventListener");
+
+	private final Map<String, Set<String>> index = new TreeMap<>();
+	private final Set<String> compiled = new HashSet<>();
+
+	public IndexProcessor() {
+		SUPERTYPES.forEach(s -> this.index.put(s, new TreeSet<>()));
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+		if (round.processingOver()) {
+			writeIndex();
+
+		} else {
+			var elements = this.processingEnv.getElementUtils();
+			var supertypes = SUPERTYPES.stream().map(elements::getTypeElement).filter(Objects::nonNull).toList();
+			ElementFilter.typesIn(round.getRootElements()).forEach(t -> indexType(t, supertypes));
+		}
+
+		return false;
+	}
+
+	private void indexType(TypeElement type, List<TypeElement> supertypes) {
+		ElementFilter.typesIn(type.getEnclosedElements()).forEach(t -> indexType(t, supertypes));
+		var name = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+		this.compiled.add(name);
+		if (type.getKind() != CLASS || type.getModifiers().contains(ABSTRACT))
+			return;
+
+		var types = this.processingEnv.getTypeUtils();
+		var erasure = types.erasure(type.asType());
+		for (var supertype : supertypes) {
+			if (types.isAssignable(erasure, types.erasure(supertype.asType())))
+				this.index.get(supertype.getQualifiedName().toString()).add(name);
+		}
+	}
+
+	private void writeIndex() {
+		var filer = this.processingEnv.getFiler();
+		this.index.forEach((supertype, indexed) -> {
+			// incremental builds (eg. in IDEs) only compile some of the classes, so the entries of the classes that
+			// weren't compiled this time are carried over from the previous index
+			var implementations = new TreeSet<>(indexed);
+			readPreviousIndex(supertype).stream()
+				.filter(name -> !this.compiled.contains(name))
+				.filter(name -> this.processingEnv.getElementUtils().getTypeElement(name.replace('$', '.')) != null)
+				.forEach(implementations::add);
+
+			try (var writer = filer.createResource(CLASS_OUTPUT, "", INDEX_PATH + supertype).openWriter()) {
+				for (var implementation : implementations) {
+					writer.write(implementation);
+					writer.write('\n');
+				}
+
+			} catch (IOException e) {
+				this.processingEnv.getMessager()
+					.printMessage(ERROR, "Couldn't write the index for " + supertype + ": " + e.getMessage());
+			}
+		});
+	}
+
+	private List<String> readPreviousIndex(String supertype) {
+		try {
+			var previous = this.processingEnv.getFiler().getResource(CLASS_OUTPUT, "", INDEX_PATH + supertype);
+			return previous.getCharContent(true).toString().lines().filter(l -> !l.isBlank()).toList();
+
+		} catch (IOException | IllegalArgumentException e) {
+			return List.of(); // there's no previous index, eg. in a clean build
+		}
+	}
+
+}
@@ -0,0 +1,133 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.processor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static libot.core.processor.IndexProcessor.INDEX_PATH;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+import javax.tools.*;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexProcessorTest {
+
+	// the supertypes are stubbed, since this module can't depend on the ones it indexes
+	private static final Map<String, String> FIXTURE = Map.of("libot/core/command/Command.java", """
+		package libot.core.command;
+		public abstract class Command {}
+		""", "libot/listener/BotEventListener.java", """
+		package libot.listener;
+		public interface BotEventListener {}
+		""", "libot/command/PingCommand.java", """
+		package libot.command;
+		public class PingCommand extends libot.core.command.Command {}
+		""", "libot/command/AbstractGameCommand.java", """
+		package libot.command;
+		public abstract class AbstractGameCommand extends libot.core.command.Command {
+			public static class Nested extends AbstractGameCommand {}
+		}
+		""", "libot/listener/StartupListener.java", """
+		package libot.listener;
+		public class StartupListener implements BotEventListener {}
+		""", "libot/listener/ExtendedListener.java", """
+		package libot.listener;
+		public interface ExtendedListener extends BotEventListener {}
+		""", "libot/listener/GenericListener.java", """
+		package libot.listener;
+		public class GenericListener<T> implements ExtendedListener {}
+		""");
+
+	@Test
+	void testCommands() throws IOException {
+		var output = compileFixture();
+		assertEquals(List.of("libot.command.AbstractGameCommand$Nested", "libot.command.PingCommand"),
+					 readIndex(output, "libot.core.command.Command"));
+	}
+
+	@Test
+	void testListeners() throws IOException {
+		var output = compileFixture();
+		assertEquals(List.of("libot.listener.GenericListener", "libot.listener.StartupListener"),
+					 readIndex(output, "libot.listener.BotEventListener"));
+	}
+
+	@Test
+	void testUnresolvedSupertype() throws IOException {
+		// indices of supertypes that aren't on the classpath are still written, so the module counts as indexed
+		var output = compileFixture();
+		assertEquals(List.of(), readIndex(output, "libot.core.data.DataManager"));
+		assertEquals(List.of(), readIndex(output, "net.dv8tion.jda.api.hooks.EventListener"));
+	}
+
+	@Test
+	void testIncrementalBuild() throws IOException {
+		// only the changed classes are recompiled, the rest must carry over from the previous index
+		var output = compileFixture();
+		compile(Map.of("libot/command/PingCommand.java", """
+			package libot.command;
+			public class PingCommand {}
+			""", "libot/command/KickCommand.java", """
+			package libot.command;
+			public class KickCommand extends libot.core.command.Command {}
+			"""), output);
+		assertEquals(List.of("libot.command.AbstractGameCommand$Nested", "libot.command.KickCommand"),
+					 readIndex(output, "libot.core.command.Command"));
+		assertEquals(List.of("libot.listener.GenericListener", "libot.listener.StartupListener"),
+					 readIndex(output, "libot.listener.BotEventListener"));
+	}
+
+	private static List<String> readIndex(Path output, String supertype) throws IOException {
+		var index = output.resolve(INDEX_PATH + supertype);
+		assertTrue(Files.exists(index), "missing index for " + supertype);
+		return Files.readAllLines(index, UTF_8);
+	}
+
+	private static Path compileFixture() throws IOException {
+		var output = Files.createTempDirectory("index-processor-output");
+		compile(FIXTURE, output);
+		return output;
+	}
+
+	private static void compile(Map<String, String> fixture, Path output) throws IOException {
+		var compiler = ToolProvider.getSystemJavaCompiler();
+		assertNotNull(compiler, "tests must run on a JDK");
+
+		var sources = Files.createTempDirectory("index-processor-sources");
+		var files = new ArrayList<Path>();
+		for (var e : fixture.entrySet()) {
+			var file = sources.resolve(e.getKey());
+			Files.createDirectories(file.getParent());
+			Files.writeString(file, e.getValue(), UTF_8);
+			files.add(file);
+		}
+
+		var diagnostics = new DiagnosticCollector<JavaFileObject>();
+		try (var fileManager = compiler.getStandardFileManager(diagnostics, null, UTF_8)) {
+			var options = List.of("-d", output.toString(), "-cp", output.toString());
+			var task = compiler.getTask(null, fileManager, diagnostics, options, null,
+										fileManager.getJavaFileObjectsFromPaths(files));
+			task.setProcessors(List.of(new IndexProcessor()));
+			assertTrue(task.call(), () -> "fixture failed to compile: " + diagnostics.getDiagnostics());
+		}
+	}
+
+}
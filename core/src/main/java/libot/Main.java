@@ -18,7 +18,7 @@ package libot;
 import static java.lang.Integer.parseInt;
 import static java.lang.Runtime.getRuntime;
 import static java.lang.System.getenv;
-import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.*;
 import static java.util.stream.Stream.concat;
 import static libot.core.Constants.*;
 import static libot.core.process.ProcessManager.getProcesses;
@@ -29,12 +29,12 @@ import static net.dv8tion.jda.api.utils.cache.CacheFlag.*;
 import static net.dv8tion.jda.api.utils.cache.CacheFlag.SCHEDULED_EVENTS;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.*;
 import java.util.stream.Stream;
 
-import javax.annotation.Nonnull;
+import javax.annotation.*;
 
 import org.slf4j.Logger;
 
@@ -50,6 +50,7 @@ import libot.core.listener.*;
 import libot.core.process.ProcessManager;
 import libot.core.shred.Shredder;
 import libot.core.shred.Shredder.Shred;
+import libot.core.startup.*;
 import libot.listener.BotEventListener;
 import libot.management.ManagementServer;
 import net.dv8tion.jda.api.*;
@@ -65,91 +66,93 @@ import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
 public class Main {
 
 	private static final Logger LOG = getLogger(Main.class);
+	private static final long PRIVATE_MESSAGE_FLUSH_TIMEOUT = 10; // in seconds
 
 	private static final String FORMAT_NO_SHREDS =
 		"No shreds are created (either none were configured, or they all failed to log in)";
 
 	@SuppressWarnings("null")
-	public static void main(String[] argv) throws ReflectiveOperationException, IOException {
+	public static void main(String[] argv) throws Exception {
 		Thread.currentThread().setUncaughtExceptionHandler((t, e) -> {
 			LOG.error("Encountered an error on boot, shutting down", e);
 			System.exit(1);
 		});
-		LOG.info("Creating shreds");
-		var ewl = new EventWaiterListener();
+		if (getenv(ENV_CHECKPOINT) != null)
+			Checkpoints.checkpoint();
 
-		var builder = JDABuilder
-			.create(GUILD_MEMBERS, GUILD_EXPRESSIONS, GUILD_VOICE_STATES, GUILD_MESSAGES, MESSAGE_CONTENT,
-					GUILD_MESSAGE_REACTIONS, DIRECT_MESSAGE_REACTIONS)
-			.enableCache(VOICE_STATE, EMOJI, MEMBER_OVERRIDES)
-			.disableCache(ACTIVITY, CLIENT_STATUS, ONLINE_STATUS, SCHEDULED_EVENTS)
-			.setChunkingFilter(ChunkingFilter.ALL)
-			.addEventListeners(ewl)
-			.setStatus(IDLE)
-			.setAudioModuleConfig(new AudioModuleConfig().withAudioSendFactory(new NativeAudioSendFactory())
-				.withDaveSessionFactory(new JDaveSessionFactory()));
+		if (getenv(ENV_TRAINING_RUN) != null) {
+			Checkpoints.train();
+			LOG.info("Training run complete, shutting down");
+			System.exit(0);
+		}
 
-		var shreds = startShreds(builder);
-		if (shreds.isEmpty())
-			throw new IllegalStateException(FORMAT_NO_SHREDS);
+		var stages = new StartupStages();
+		var ewl = new EventWaiterListener();
 
-		LOG.info("Creating context");
-		var shredder = new Shredder(shreds);
+		LOG.info("Creating shreds");
+		var shreds = stages.submit("shreds", () -> startShreds(stages, ewl));
 
 		LOG.info("Creating DataManager");
-		var data = DataManagerFactory.fromEnvironment();
-		LOG.info("Using {} for storage", data.getClass().getSimpleName());
+		var data = stages.submit("data", DataManagerFactory::fromEnvironment);
 
-		LOG.info("Creating providers");
-		var providers = ProviderManager.fromClasspath(shredder, data);
-		LOG.info("Created {} providers", providers.size());
+		LOG.info("Creating commands");
+		var commands = stages.submit("commands", CommandManager::fromClasspath);
 
 		LOG.info("Loading configuration");
 		var config = BotConfiguration.fromEnvironment();
 
-		LOG.info("Creating commands");
-		var commands = CommandManager.fromClasspath();
-		LOG.info("Created {} commands", commands.size());
+		var shredder = shreds.thenApply(s -> {
+			if (s.isEmpty())
+				throw new IllegalStateException(FORMAT_NO_SHREDS);
+			return new Shredder(s);
+		});
 
-		var bot = new BotContext(config, commands, data, shredder, providers, ewl);
+		LOG.info("Creating providers");
+		var providers = stages.submit("providers", () -> {
+			var p = ProviderManager.fromClasspath(shredder.join(), data.join());
+			LOG.info("Created {} providers", p.size());
+			p.loadAll();
+			return p;
+		}, shredder, data);
+
+		var bot = new BotContext(config, commands.join(), data.join(), shredder.join(), providers.join(), ewl);
+		LOG.info("Using {} for storage", bot.getData().getClass().getSimpleName());
+		LOG.info("Created {} commands", bot.getCommands().size());
 		LOG.info("Context created, finalizing startup");
 
-		bot.cron.scheduleWithFixedDelay(providers::storeAll, 2, 2, MINUTES);
+		bot.cron.scheduleWithFixedDelay(bot.getProviders()::storeAll, 2, 2, MINUTES);
 		getRuntime().addShutdownHook(new Thread(() -> stop(bot), "libot-shutdown"));
 
-		LOG.info("Loading providers");
-		providers.loadAll();
-
 		LOG.info("Creating event listeners");
-		loadEventListeners(shredder, bot);
+		stages.run("listeners", () -> loadEventListeners(bot.getShredder(), bot));
 
-		shredder.awaitComplete();
+		stages.run("ready", bot.getShredder()::awaitComplete);
 
-		providers.onShredderReady();
+		stages.run("restore", bot.getProviders()::onShredderReady);
 
 		if (getenv(ENV_MANAGEMENT_PORT) != null) {
 			LOG.info("Launching the management server");
-			new ManagementServer(shredder, parseInt(getenv(ENV_MANAGEMENT_PORT))).start();
+			new ManagementServer(bot, stages, parseInt(getenv(ENV_MANAGEMENT_PORT))).start();
 		}
 
-		setPresence(shredder);
+		setPresence(bot.getShredder());
 
 		LOG.info("Resolving shredder clashes");
-		resolveClashes(shredder);
+		resolveClashes(bot.getShredder());
 
 		if (RESOURCE_GUILDS.length != 0) {
 			LOG.info("Checking resource guilds");
-			checkResourceGuilds(shredder);
+			checkResourceGuilds(bot.getShredder());
 		}
 
 		LOG.info("Invoking post-startup listeners");
 		scanClasspath(BotEventListener.class, libot.listener.Anchor.class).forEach(l -> l.onStartup(bot));
 
+		stages.finish();
 		LOG.info("Finished loading");
 		LOG.info("    |_|_ LiBot {}", VERSION);
-		LOG.info("  |_|_|_ {} shreds running", shredder.getShreds().size());
-		LOG.info("    |_   {} guilds visible", shredder.getGuildCount());
-
+		LOG.info("  |_|_|_ {} shreds running", bot.getShredder().getShreds().size());
+		LOG.info("    |_   {} guilds visible", bot.getShredder().getGuildCount());
 	}
 
 	public static void stop(@Nonnull BotContext bot) {
@@ -158,38 +161,74 @@ public class Main {
 
 		LOG.info("Shutting down processes");
 		getProcesses().stream().forEach(ProcessManager::interrupt);
+
+		LOG.info("Flushing private messages");
+		try {
+			bot.getShredder().getPrivateMessageQueue().flushAll().get(PRIVATE_MESSAGE_FLUSH_TIMEOUT, SECONDS);
+
+		} catch (TimeoutException e) {
+			LOG.warn("Timed out waiting for private messages to be sent");
+
+		} catch (ExecutionException e) {
+			LOG.warn("Failed to send some private messages", e.getCause());
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
 		bot.getShredder().getShreds().forEach(s -> {
 			LOG.info("Shutting down {}", s.name());
 			s.jda().shutdown();
 		});
 	}
 
-	private static List<Shred> startShreds(JDABuilder builder) {
-		return getenv().entrySet()
+	@Nonnull
+	private static JDABuilder createBuilder(@Nonnull EventWaiterListener ewl) {
+		return JDABuilder
+			.create(GUILD_MEMBERS, GUILD_EXPRESSIONS, GUILD_VOICE_STATES, GUILD_MESSAGES, MESSAGE_CONTENT,
+					GUILD_MESSAGE_REACTIONS, DIRECT_MESSAGE_REACTIONS)
+			.enableCache(VOICE_STATE, EMOJI, MEMBER_OVERRIDES)
+			.disableCache(ACTIVITY, CLIENT_STATUS, ONLINE_STATUS, SCHEDULED_EVENTS)
+			.setChunkingFilter(ChunkingFilter.ALL)
+			.addEventListeners(ewl)
+			.setStatus(IDLE)
+			.setAudioModuleConfig(new AudioModuleConfig().withAudioSendFactory(new NativeAudioSendFactory())
+				.withDaveSessionFactory(new JDaveSessionFactory()));
+	}
+
+	@SuppressWarnings("null")
+	private static List<Shred> startShreds(@Nonnull StartupStages stages, @Nonnull EventWaiterListener ewl) {
+		var logins = getenv().entrySet()
 			.stream()
 			.filter(e -> e.getKey().startsWith(ENV_SHRED_TOKEN))
 			.sorted(Comparator.comparing(Entry<String, String>::getKey))
 			.map(e -> {
 				var name = e.getKey().substring(ENV_SHRED_TOKEN.length(), e.getKey().length());
-				try {
-					var jda = builder.setToken(e.getValue()).build();
-					jda.addEventListener(new ListenerAdapter() {
-
-						@Override
-						public void onReady(ReadyEvent event) {
-							LOG.info("{} is online", name);
-						}
-
-					});
-					return new Shred(jda, name);
-				} catch (InvalidTokenException le) {
-					LOG.error("Failed to log into shred {}", name);
-					LOG.error("", le);
-					return null;
-				}
+				return stages.submit("shred-" + name, () -> startShred(createBuilder(ewl), name, e.getValue()));
 			})
-			.filter(Objects::nonNull)
 			.toList();
+
+		return logins.stream().map(CompletableFuture::join).filter(Objects::nonNull).toList();
+	}
+
+	@Nullable
+	private static Shred startShred(@Nonnull JDABuilder builder, @Nonnull String name, @Nonnull String token) {
+		try {
+			var jda = builder.setToken(token).build();
+			jda.addEventListener(new ListenerAdapter() {
+
+				@Override
+				public void onReady(ReadyEvent event) {
+					LOG.info("{} is online", name);
+				}
+
+			});
+			return new Shred(jda, name);
+		} catch (InvalidTokenException le) {
+			LOG.error("Failed to log into shred {}", name);
+			LOG.error("", le);
+			return null;
+		}
 	}
 
 	@SuppressWarnings("null")
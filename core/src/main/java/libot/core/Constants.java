@@ -55,6 +55,15 @@ public class Constants {
 	public static final String ENV_QALCULATE_PATH = "QALCULATE_HELPER_PATH";
 	public static final String ENV_QALCULATE_EXCHANGE_RATE_UPDATER_PATH = "QALCULATE_HELPER_EXCHANGE_RATE_UPDATER_PATH";
 	public static final String ENV_QALCULATE_HOME = "QALCULATE_HOME_PATH";
+	public static final String ENV_MUSIC_RESTORE_PARALLELISM = "MUSIC_RESTORE_PARALLELISM";
+	public static final String ENV_MUSIC_QUEUE_MAX_SIZE = "MUSIC_QUEUE_MAX_SIZE";
+	public static final String ENV_MUSIC_IDLE_TIMEOUT = "MUSIC_IDLE_TIMEOUT";
+	public static final String ENV_MUSIC_PREFETCH_LIMIT = "MUSIC_PREFETCH_LIMIT";
+	public static final String ENV_MUSIC_BROADCAST = "MUSIC_BROADCAST";
+	public static final String ENV_MUSIC_FRAME_CACHE_SIZE = "MUSIC_FRAME_CACHE_SIZE";
+	public static final String ENV_CHECKPOINT = "CRAC_CHECKPOINT";
+	public static final String ENV_TRAINING_RUN = "TRAINING_RUN";
+	public static final String ENV_TRACE_SAMPLE_RATE = "TRACE_SAMPLE_RATE";
 
 	// Colors
 	@Nonnull public static final Color LITHIUM = new Color(11, 92, 147);
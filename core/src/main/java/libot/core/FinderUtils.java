@@ -196,10 +196,24 @@ public final class FinderUtils {
 	 */
 	@SuppressWarnings("null")
 	public static List<Member> findMembers(@Nonnull CommandContext c, @Nonnull String query) {
+		return findMembers(c.getGuild().getMemberCache(), query);
+	}
+
+	/**
+	 * Searches {@link Member}s in the given cache for matching/similar name and
+	 * mention.
+	 *
+	 * @param cache
+	 * @param query
+	 *
+	 * @return list of found members, sorted by similarity to the query, with direct
+	 *         mentions first (can be empty)
+	 */
+	@SuppressWarnings("null")
+	public static List<Member> findMembers(@Nonnull SnowflakeCacheView<Member> cache, @Nonnull String query) {
 		String text = query.toLowerCase().strip();
 
 		List<Member> found = SetUniqueList.setUniqueList(new ArrayList<>());
-		var cache = c.getGuild().getMemberCache();
 		findSnowflakeById(cache, query).ifPresent(found::add);
 		findSnowflakesFromMentions(cache, MentionType.USER, found, text);
 		findMembersFromText(cache.stream(), found, text);
@@ -15,35 +15,57 @@
  */
 package libot.core.argument;
 
-import static java.util.Collections.emptyMap;
 import static java.util.Objects.requireNonNull;
 
 import java.util.*;
 
-import javax.annotation.Nonnull;
+import javax.annotation.*;
 
 import libot.core.argument.ParameterList.*;
 import libot.util.ParseUtils;
 
 public class ArgumentList {
 
-	@SuppressWarnings("null") static final ArgumentList EMPTY = new ArgumentList(emptyMap());
+	static final ArgumentList EMPTY = new ArgumentList("", new int[0], new int[0]);
 
-	@Nonnull private final Map<Parameter, Argument> arguments;
+	@Nonnull private final String input;
+	@Nonnull private final int[] slots;
+	@Nonnull private final int[] offsets;
+	@Nonnull private final Argument[] arguments; // materialized lazily, a racing thread will just create an equal one
 
-	ArgumentList(@Nonnull Map<Parameter, Argument> arguments) {
-		this.arguments = arguments;
+	ArgumentList(@Nonnull String input, @Nonnull int[] slots, @Nonnull int[] offsets) {
+		this.input = input;
+		this.slots = slots;
+		this.offsets = offsets;
+		this.arguments = new Argument[offsets.length / 2];
 	}
 
 	@Nonnull
 	public Argument get(@Nonnull MandatoryParameter param) {
-		return requireNonNull(this.arguments.get(param));
+		return requireNonNull(getArgument(param));
 	}
 
 	@Nonnull
 	@SuppressWarnings("null")
 	public Optional<Argument> get(@Nonnull Parameter param) {
-		return Optional.ofNullable(this.arguments.get(param));
+		return Optional.ofNullable(getArgument(param));
+	}
+
+	@Nullable
+	private Argument getArgument(@Nonnull Parameter param) {
+		if (param.ordinal >= this.slots.length)
+			return null;
+
+		int slot = this.slots[param.ordinal];
+		if (slot < 0 || this.offsets[slot * 2] < 0)
+			return null;
+
+		var argument = this.arguments[slot];
+		if (argument == null) {
+			argument = new Argument(this.input.substring(this.offsets[slot * 2], this.offsets[slot * 2 + 1]));
+			this.arguments[slot] = argument;
+		}
+		return argument;
 	}
 
 	public static record Argument(String value) {
@@ -22,32 +22,46 @@ import static libot.core.argument.ParameterList.Parameter.ParameterType.NAMED;
 
 import java.util.*;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import javax.annotation.*;
 
-import org.apache.commons.lang3.mutable.*;
-
 import com.google.common.collect.Maps;
 
-import libot.core.argument.ArgumentList.Argument;
-
 public class ParameterList {
 
 	@SuppressWarnings("null")
 	@Nonnull static final ParameterList EMPTY = new ParameterList(new Parameter[0], emptyMap(), -1, new Parameter[0]);
 
+	private static final ThreadLocal<Tokenizer> TOKENIZER = ThreadLocal.withInitial(Tokenizer::new);
+
 	@Nonnull private final Parameter[] positional;
-	@Nonnull private final Map<String, Parameter> named;
+	@Nonnull private final Parameter[] named;
 	private final int positionalRequiredIndex;
 	@Nonnull private final Parameter[] namedRequired;
+	@Nonnull private final int[] slots; // argument slot of each parameter, indexed by the parameter's ordinal
 
 	public ParameterList(@Nonnull Parameter[] positional, @Nonnull Map<String, Parameter> named, int positionalRequired,
 						 @Nonnull Parameter[] namedRequired) {
 		this.positional = positional;
-		this.named = named;
+		this.named = named.values().toArray(Parameter[]::new);
 		this.positionalRequiredIndex = positionalRequired;
 		this.namedRequired = namedRequired;
+
+		int maxOrdinal = -1;
+		for (var param : positional)
+			maxOrdinal = Math.max(maxOrdinal, param.ordinal);
+		for (var param : this.named)
+			maxOrdinal = Math.max(maxOrdinal, param.ordinal);
+
+		this.slots = new int[maxOrdinal + 1];
+		fill(this.slots, -1);
+		for (int i = 0; i < positional.length; i++)
+			this.slots[positional[i].ordinal] = i;
+		for (int i = 0; i < this.named.length; i++)
+			this.slots[this.named[i].ordinal] = positional.length + i;
 	}
 
 	@Nonnull
@@ -96,127 +110,195 @@ public class ParameterList {
 								 namedRequired.toArray(Parameter[]::new));
 	}
 
-	@Nonnull
-	@SuppressWarnings("null")
-	public ArgumentList parse(@Nullable String input) {
-		var positionalIndex = new MutableInt(0);
+	/**
+	 * Splits the input into tokens on spaces, without copying it. Tokens are reported
+	 * as offsets into the input, and consecutive spaces don't produce empty tokens.
+	 */
+	private static final class Tokenizer {
 
-		Map<Parameter, Argument> arguments;
-		if (input == null || input.isEmpty())
-			arguments = emptyMap();
-		else
-			arguments = parseArgumentMap(input, positionalIndex);
+		@Nullable private String input;
+		private int position;
+		private int start;
+		private int end;
 
-		if (positionalIndex.intValue() - 1 < this.positionalRequiredIndex)
-			throw new UsageException("Missing argument: " + this.positional[this.positionalRequiredIndex].getName());
+		@Nonnull
+		private Tokenizer reset(@Nullable String input) {
+			this.input = input;
+			this.position = 0;
+			return this;
+		}
 
-		for (var required : this.namedRequired) {
-			if (!arguments.containsKey(required))
-				throw new UsageException("Missing argument: --" + required.getName());
+		@SuppressWarnings("null")
+		private boolean next() {
+			var string = this.input;
+			int length = string.length();
+			while (this.position < length && string.charAt(this.position) == ' ')
+				this.position++;
+
+			if (this.position >= length)
+				return false;
+
+			this.start = this.position;
+			int space = string.indexOf(' ', this.position);
+			this.end = space == -1 ? length : space;
+			this.position = this.end;
+			return true;
 		}
 
-		if (arguments.isEmpty())
-			return ArgumentList.EMPTY;
-		else
-			return new ArgumentList(arguments);
 	}
 
 	@Nonnull
-	@SuppressWarnings("null")
-	private Map<Parameter, Argument> parseArgumentMap(@Nonnull String input, @Nonnull MutableInt positionalIndex) {
-		if (this == EMPTY)
-			throw new UsageException("Too many arguments");
-
-		var arguments =
-			Maps.<Parameter, Argument>newHashMapWithExpectedSize(this.positional.length + this.named.size());
-		var name = new MutableObject<String>(null);
-		var argumentBuffer = new StringBuilder(input.length());
-
-		int i = -1;
-		while (i != input.length()) {
-			int next = input.indexOf(' ', i + 1);
-			if (next == -1)
-				next = input.length();
+	public ArgumentList parse(@Nullable String input) {
+		int[] offsets = null;
+		int positionalIndex = 0;
+		if (input != null && !input.isEmpty()) {
+			if (this == EMPTY)
+				throw new UsageException("Too many arguments");
+
+			offsets = new int[this.positional.length * 2 + this.named.length * 2];
+			fill(offsets, -1);
+
+			var tokenizer = TOKENIZER.get().reset(input);
+			try {
+				positionalIndex = parseOffsets(input, tokenizer, offsets);
+			} finally {
+				tokenizer.reset(null);
+			}
+		}
 
-			parsePart(input, arguments, positionalIndex, name, argumentBuffer, i, next);
+		if (positionalIndex - 1 < this.positionalRequiredIndex)
+			throw new UsageException("Missing argument: " + this.positional[this.positionalRequiredIndex].getName());
 
-			i = next;
+		for (var required : this.namedRequired) {
+			if (offsets == null || offsets[this.slots[required.ordinal] * 2] < 0)
+				throw new UsageException("Missing argument: --" + required.getName());
 		}
 
-		if (name.get() != null)
-			throw new UsageException("Argument without value: --" + name);
-
-		if (!argumentBuffer.isEmpty() && !foldPositionalParameter(arguments, positionalIndex, argumentBuffer))
-			throw new UsageException("Too many arguments"); // positional argument out of bounds
-		return arguments;
+		if (offsets == null || isEmpty(offsets))
+			return ArgumentList.EMPTY;
+		else
+			return new ArgumentList(input, this.slots, offsets);
 	}
 
-	private void parsePart(@Nonnull String input, @Nonnull Map<Parameter, Argument> arguments,
-						   @Nonnull MutableInt positionalIndex, @Nonnull MutableObject<String> name,
-						   @Nonnull StringBuilder argumentBuffer, int i, int next) {
-		if (next - i == 1) {
-			if (!argumentBuffer.isEmpty())
-				argumentBuffer.append(' ');
+	// returns the index of the next positional parameter
+	private int parseOffsets(@Nonnull String input, @Nonnull Tokenizer tokens, @Nonnull int[] offsets) {
+		int positionalIndex = 0;
+		int nameStart = -1;
+		int nameEnd = -1;
+		int bufferStart = -1;
+		int bufferEnd = -1;
 
-		} else {
-			var part = input.substring(i + 1, next);
+		while (tokens.next()) {
+			int start = tokens.start;
+			int end = tokens.end;
 
-			if (name.get() != null) {
-				// fold argumentBuffer into named parameter
-				var parameter = this.named.get(name.get());
-				if (parameter == null)
-					throw new UsageException("Invalid argument: --" + name);
+			if (nameStart >= 0) {
+				// fold the token into the named parameter
+				int parameter = getNamed(input, nameStart, nameEnd);
+				if (parameter < 0)
+					throw new UsageException("Invalid argument: --" + getName(input, nameStart, nameEnd));
 
-				arguments.put(parameter, new Argument(part));
-				name.setValue(null);
+				setOffsets(offsets, this.positional.length + parameter, start, end);
+				nameStart = -1;
 
-			} else if (part.length() >= 3 && part.charAt(0) == '-' && part.charAt(1) == '-') {
+			} else if (end - start >= 3 && input.charAt(start) == '-' && input.charAt(start + 1) == '-') {
 				// start named argument (and fold previous positional argument if one exists)
-				if (!argumentBuffer.isEmpty()) {
-					if (!foldPositionalParameter(arguments, positionalIndex, argumentBuffer))
+				if (bufferStart >= 0) {
+					if (!foldPositionalParameter(input, offsets, positionalIndex, bufferStart, bufferEnd))
 						throw new UsageException("Too many arguments");
 
-					positionalIndex.increment();
+					positionalIndex += 2;
+					bufferStart = -1;
 				}
 
-				name.setValue(part.substring(2).toLowerCase());
+				nameStart = start + 2;
+				nameEnd = end;
 
-			} else if (positionalIndex.intValue() < this.positional.length - 1) {
+			} else if (positionalIndex < this.positional.length - 1) {
 				// fold single string positional argument
-				arguments.put(this.positional[positionalIndex.getAndIncrement()], new Argument(part));
+				setOffsets(offsets, positionalIndex++, start, end);
 
 			} else {
-				// append to multi string buffer
-				if (!argumentBuffer.isEmpty())
-					argumentBuffer.append(' ');
-				argumentBuffer.append(part);
+				// extend the multi string positional argument
+				if (bufferStart < 0)
+					bufferStart = start;
+				bufferEnd = end;
 			}
 		}
+
+		if (nameStart >= 0)
+			throw new UsageException("Argument without value: --" + getName(input, nameStart, nameEnd));
+
+		if (bufferStart >= 0) {
+			if (!foldPositionalParameter(input, offsets, positionalIndex, bufferStart, bufferEnd))
+				throw new UsageException("Too many arguments"); // positional argument out of bounds
+			positionalIndex++;
+		}
+
+		return positionalIndex;
 	}
 
-	public Stream<Parameter> parameters() {
-		return concat(stream(this.positional), this.named.values().stream());
+	// returns the index of the named parameter in this.named, or -1 if it doesn't exist
+	private int getNamed(@Nonnull String input, int start, int end) {
+		for (int i = 0; i < this.named.length; i++) {
+			var name = this.named[i].getName();
+			if (name.length() == end - start && input.regionMatches(true, start, name, 0, name.length()))
+				return i;
+		}
+		return -1;
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	private static String getName(@Nonnull String input, int start, int end) {
+		return input.substring(start, end).toLowerCase();
 	}
 
-	private boolean foldPositionalParameter(@Nonnull Map<Parameter, Argument> arguments, MutableInt positionalIndex,
-											@Nonnull StringBuilder argumentBuffer) {
-		if (positionalIndex.intValue() >= this.positional.length)
+	private boolean foldPositionalParameter(@Nonnull String input, @Nonnull int[] offsets, int positionalIndex,
+											int start, int end) {
+		if (positionalIndex >= this.positional.length)
 			// this can happen if positional arguments are broken up by a named one, eg.
 			// "first --named value second", which yields two positional arguments
 			return false;
 
-		arguments.put(this.positional[positionalIndex.getAndIncrement()],
-					  new Argument(argumentBuffer.toString().trim()));
-		argumentBuffer.setLength(0);
+		// equivalent to String#trim()
+		while (start < end && input.charAt(start) <= ' ')
+			start++;
+		while (end > start && input.charAt(end - 1) <= ' ')
+			end--;
+
+		setOffsets(offsets, positionalIndex, start, end);
 		return true;
 	}
 
+	private static void setOffsets(@Nonnull int[] offsets, int slot, int start, int end) {
+		offsets[slot * 2] = start;
+		offsets[slot * 2 + 1] = end;
+	}
+
+	private static boolean isEmpty(@Nonnull int[] offsets) {
+		for (int i = 0; i < offsets.length; i += 2) {
+			if (offsets[i] >= 0)
+				return false;
+		}
+		return true;
+	}
+
+	public Stream<Parameter> parameters() {
+		return concat(stream(this.positional), stream(this.named));
+	}
+
 	public static class Parameter {
 
+		// parameters are equal by name, so they share ordinals by name too
+		private static final Map<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+		private static final AtomicInteger NEXT_ORDINAL = new AtomicInteger();
+
 		@Nonnull private final ParameterType type;
 		@Nonnull private final String name;
 		@Nonnull private final Optional<String> description;
 		private final boolean mandatory;
+		final int ordinal;
 
 		private Parameter(@Nonnull ParameterType type, @Nonnull String name, @Nonnull Optional<String> description,
 						  boolean mandatory) {
@@ -224,6 +306,7 @@ public class ParameterList {
 			this.name = name;
 			this.description = description;
 			this.mandatory = mandatory;
+			this.ordinal = ORDINALS.computeIfAbsent(name, n -> NEXT_ORDINAL.getAndIncrement());
 		}
 
 		@Nonnull
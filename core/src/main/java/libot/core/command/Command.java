@@ -35,9 +35,11 @@ import net.dv8tion.jda.api.Permission;
 public abstract class Command {
 
 	@Nonnull private final CommandMetadata meta;
+	@Nonnull private final String usage;
 
 	protected Command(@Nonnull CommandMetadata.Builder meta) {
 		this.meta = meta.build();
+		this.usage = buildUsage(this.meta);
 	}
 
 	public abstract void execute(@Nonnull CommandContext c) throws Exception;
@@ -109,13 +111,18 @@ public abstract class Command {
 	}
 
 	@Nonnull
-	@SuppressWarnings("null")
 	public final String getUsage(@Nonnull EventContext ec) {
+		return escape(ec.getEffectivePrefix(), true) + this.usage;
+	}
+
+	// everything but the prefix is known up front, so it's only built once
+	@Nonnull
+	@SuppressWarnings("null")
+	private static String buildUsage(@Nonnull CommandMetadata meta) {
 		var u = new StringBuilder();
-		u.append(escape(ec.getEffectivePrefix(), true));
-		u.append(getName());
+		u.append(meta.name());
 
-		var parameters = getParameters().parameters().toList();
+		var parameters = meta.parameters().parameters().toList();
 
 		if (!parameters.isEmpty()) {
 			u.append(parameters.stream().map(Parameter::toString).collect(joining("__ __", " __", "__")));
@@ -15,10 +15,16 @@
  */
 package libot.core.command;
 
+import static java.util.Comparator.comparing;
+import static java.util.regex.Pattern.compile;
+import static java.util.stream.Collectors.*;
 import static java.util.stream.Stream.concat;
 import static libot.util.ReflectionUtils.scanClasspath;
+import static net.dv8tion.jda.api.utils.MarkdownUtil.monospace;
+import static org.apache.commons.lang3.StringUtils.*;
 
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
@@ -29,7 +35,15 @@ public class CommandManager {
 
 	private static final Logger LOG = LoggerFactory.getLogger(CommandManager.class);
 
+	private static final int HELP_MAX_WIDTH = 70;
+	private static final Pattern HYPERLINK_REGEX = compile("\\[(.*?)\\]\\([^\\)]+\\)");
+
 	@Nonnull private final Map<String, Command> commands;
+	@Nonnull private final List<Command> distinct;
+	@Nonnull private final Map<Class<?>, Command> byClass;
+	@Nonnull private final Map<CommandCategory, List<Command>> byCategory;
+	@Nonnull private final Map<Command, String> helpLines;
+	@Nonnull private final Map<CommandCategory, String> helpTables;
 
 	@Nonnull
 	@SuppressWarnings("null")
@@ -47,8 +61,36 @@ public class CommandManager {
 		});
 	}
 
+	@SuppressWarnings("null")
 	private CommandManager(@Nonnull Map<String, Command> commands) {
 		this.commands = commands;
+		this.distinct = commands.values().stream().distinct().sorted(comparing(Command::getName)).toList();
+		this.byClass = this.distinct.stream().collect(toUnmodifiableMap(Command::getClass, c -> c, (a, b) -> a));
+
+		this.byCategory = new EnumMap<>(CommandCategory.class);
+		for (var category : CommandCategory.values())
+			this.byCategory.put(category, this.distinct.stream().filter(c -> c.getCategory() == category).toList());
+
+		int maxLength = this.distinct.stream().map(Command::getName).mapToInt(String::length).max().orElse(0);
+		this.helpLines = this.distinct.stream().collect(toUnmodifiableMap(c -> c, c -> buildHelpLine(c, maxLength)));
+		this.helpTables = new EnumMap<>(CommandCategory.class);
+		this.byCategory.forEach((category, categoryCommands) -> {
+			this.helpTables.put(category, categoryCommands.stream().map(this.helpLines::get).collect(joining()));
+		});
+	}
+
+	@Nonnull
+	private static String buildHelpLine(@Nonnull Command command, int maxLength) {
+		var b = new StringBuilder();
+		b.append(monospace(rightPad(command.getName(), maxLength)));
+
+		command.getDescription().map(desc -> {
+			return abbreviate(HYPERLINK_REGEX.matcher(desc.replace("\n", "")).replaceAll("$1"),
+							  HELP_MAX_WIDTH - maxLength);
+		}).ifPresent(b::append);
+
+		b.append("\n");
+		return b.toString();
 	}
 
 	@Nonnull
@@ -60,17 +102,47 @@ public class CommandManager {
 	@Nonnull
 	@SuppressWarnings("null")
 	public <T extends Command> Command get(Class<T> clazz) {
-		return this.commands.values()
-			.stream()
-			.filter(c -> c.getClass() == clazz)
-			.findAny()
-			.orElseThrow(() -> new IllegalStateException(clazz.getCanonicalName() + " is not registered"));
+		var command = this.byClass.get(clazz);
+		if (command == null)
+			throw new IllegalStateException(clazz.getCanonicalName() + " is not registered");
+		return command;
 	}
 
+	/**
+	 * @return every registered command once, sorted by name. Help and the command
+	 *         lists used to show commands in the map's (unspecified) iteration order,
+	 *         which is why they're alphabetical now.
+	 */
 	@Nonnull
 	@SuppressWarnings("null")
 	public Stream<Command> commands() {
-		return this.commands.values().stream().distinct();
+		return this.distinct.stream();
+	}
+
+	/**
+	 * @return the commands in a category, sorted by name
+	 */
+	@Nonnull
+	@SuppressWarnings("null")
+	public List<Command> getCommands(@Nonnull CommandCategory category) {
+		return this.byCategory.get(category);
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	public String getHelpLine(@Nonnull Command command) {
+		return this.helpLines.get(command);
+	}
+
+	/**
+	 * @return the commands in a category, one per line, formatted as a help table. The
+	 *         names are padded to the longest name of all commands so that all tables
+	 *         line up.
+	 */
+	@Nonnull
+	@SuppressWarnings("null")
+	public String getHelpTable(@Nonnull CommandCategory category) {
+		return this.helpTables.get(category);
 	}
 
 	public int size() {
@@ -16,19 +16,15 @@
 package libot.core.data;
 
 import static libot.core.Constants.ENV_DATA_TYPE;
+import static libot.util.ReflectionUtils.getSubtypes;
 import static libot.util.Utilities.getenvOrThrow;
 
-import org.reflections.Reflections;
-import org.reflections.scanners.Scanners;
-
 public class DataManagerFactory {
 
 	public static DataManager fromEnvironment() throws ReflectiveOperationException {
 		var className = getenvOrThrow(ENV_DATA_TYPE).toLowerCase() + "datamanager";
-		var reflections = new Reflections(libot.core.data.impl.Anchor.class.getPackageName());
 
-		var clazz = reflections.get(Scanners.SubTypes.of(DataManager.class).asClass())
-			.stream()
+		var clazz = getSubtypes(DataManager.class, libot.core.data.impl.Anchor.class)
 			.filter(c -> className.equals(c.getSimpleName().toLowerCase()))
 			.findAny()
 			.orElseThrow(() -> new IllegalStateException("Nonexistent requested data manager: " + className));
@@ -15,10 +15,13 @@
  */
 package libot.core.data.provider;
 
+import static java.lang.System.nanoTime;
 import static libot.core.Constants.GSON;
+import static libot.core.metrics.Metrics.*;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.lang.reflect.Type;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.*;
@@ -28,12 +31,18 @@ import org.slf4j.Logger;
 import com.google.gson.reflect.TypeToken;
 
 import libot.core.data.DataManager;
+import libot.core.metrics.*;
 import libot.core.shred.Shredder;
 
 public abstract class Provider<T> {
 
 	private static final Logger LOG = getLogger(Provider.class);
 
+	private static final Histogram STORE_TIME =
+		latencyHistogram("libot_provider_store_seconds", "Time spent storing providers", "provider");
+	private static final Gauge STORE_SIZE =
+		gauge("libot_provider_store_bytes", "Size of the last stored provider data", "provider");
+
 	protected T data;
 	private AtomicBoolean dirty = new AtomicBoolean(false);
 	@Nonnull private final Type type;
@@ -54,6 +63,15 @@ public abstract class Provider<T> {
 		return this.data;
 	}
 
+	public int size() {
+		if (this.data instanceof Map<?, ?> m)
+			return m.size();
+		else if (this.data instanceof Collection<?> c)
+			return c.size();
+		else
+			return this.data == null ? 0 : 1;
+	}
+
 	protected void onDataLoaded() {}
 
 	protected void onShredderReady() {}
@@ -117,11 +135,35 @@ public abstract class Provider<T> {
 	public final void store() {
 		try {
 			if (this.dirty.getAndSet(false)) {
-				getDataManager().set(this.dataKey, constructJson());
+				long start = nanoTime();
+				var json = constructJson();
+				getDataManager().set(this.dataKey, json);
+
+				var name = getClass().getSimpleName();
+				STORE_TIME.observeNanos(nanoTime() - start, name);
+				STORE_SIZE.set(utf8Length(json), name);
 			}
 		} catch (Exception e) {
 			onStoreFail(e);
 		}
 	}
 
+	private static long utf8Length(@Nonnull String string) {
+		long length = 0;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c < 0x80) {
+				length += 1;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c)) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
 }
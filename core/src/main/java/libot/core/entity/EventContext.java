@@ -16,7 +16,9 @@
 package libot.core.entity;
 
 import static java.lang.String.format;
+import static java.lang.System.nanoTime;
 import static java.util.Collections.emptyList;
+import static libot.core.metrics.Trace.Span.REPLY;
 import static libot.util.Utilities.*;
 import static net.dv8tion.jda.api.Permission.*;
 import static net.dv8tion.jda.api.entities.Role.DEFAULT_COLOR_RAW;
@@ -31,6 +33,7 @@ import libot.core.command.Command;
 import libot.core.command.exception.CommandException;
 import libot.core.command.exception.runtime.CanceledException;
 import libot.core.command.exception.startup.NotSysadminException;
+import libot.core.metrics.Trace;
 import libot.provider.CustomizationsProvider;
 import libot.provider.CustomizationsProvider.Customization;
 import net.dv8tion.jda.api.*;
@@ -52,10 +55,16 @@ public class EventContext extends BotContext {
 	@Nonnull private static final CanceledException CANCELED = new CanceledException();
 
 	@Nonnull private final MessageReceivedEvent event;
+	@Nullable private final Trace trace;
 
 	public EventContext(@Nonnull BotContext bot, @Nonnull MessageReceivedEvent event) {
+		this(bot, event, null);
+	}
+
+	public EventContext(@Nonnull BotContext bot, @Nonnull MessageReceivedEvent event, @Nullable Trace trace) {
 		super(bot);
 		this.event = event;
+		this.trace = trace;
 	}
 
 	// ===============* Getters *===============
@@ -255,6 +264,11 @@ public class EventContext extends BotContext {
 		return getGuild().getPublicRole();
 	}
 
+	@Nullable
+	public Trace getTrace() {
+		return this.trace;
+	}
+
 	// ===============* Utilities *===============
 
 	@Nonnull
@@ -371,7 +385,7 @@ public class EventContext extends BotContext {
 	@Nonnull
 	public CompletableFuture<Message> reply(@Nonnull MessageCreateData message) {
 		if (canTalk())
-			return replyraw(message).submit();
+			return submitReply(replyraw(message));
 		else {
 			return permissionExceptionFuture(MESSAGE_SEND);
 		}
@@ -386,7 +400,7 @@ public class EventContext extends BotContext {
 	@Nonnull
 	public CompletableFuture<Message> reply(@Nonnull String message) {
 		if (canTalk())
-			return replyMessage(getChannel().sendMessage(message)).submit();
+			return submitReply(replyMessage(getChannel().sendMessage(message)));
 		else {
 			return permissionExceptionFuture(MESSAGE_SEND);
 		}
@@ -395,7 +409,7 @@ public class EventContext extends BotContext {
 	@Nonnull
 	public CompletableFuture<Message> reply(@Nonnull MessageEmbed embed) {
 		if (canTalk())
-			return replyMessage(getChannel().sendMessageEmbeds(embed)).submit();
+			return submitReply(replyMessage(getChannel().sendMessageEmbeds(embed)));
 		else {
 			return permissionExceptionFuture(MESSAGE_SEND);
 		}
@@ -404,7 +418,7 @@ public class EventContext extends BotContext {
 	@Nonnull
 	public CompletableFuture<Message> reply(@Nonnull EmbedBuilder builder) {
 		if (canTalk())
-			return replyMessage(getChannel().sendMessageEmbeds(builder.build())).submit();
+			return submitReply(replyMessage(getChannel().sendMessageEmbeds(builder.build())));
 		else
 			return permissionExceptionFuture(MESSAGE_SEND);
 	}
@@ -474,12 +488,12 @@ public class EventContext extends BotContext {
 
 	@Nonnull
 	public CompletableFuture<Message> direct(@Nonnull String message) {
-		return getUser().openPrivateChannel().flatMap(pc -> pc.sendMessage(message)).submit();
+		return getShredder().getPrivateChannelCache().send(getUser(), pc -> pc.sendMessage(message));
 	}
 
 	@Nonnull
 	public CompletableFuture<Message> direct(@Nonnull MessageEmbed embed) {
-		return getUser().openPrivateChannel().flatMap(pc -> pc.sendMessageEmbeds(embed)).submit();
+		return getShredder().getPrivateChannelCache().send(getUser(), pc -> pc.sendMessageEmbeds(embed));
 	}
 
 	@Nonnull
@@ -512,7 +526,7 @@ public class EventContext extends BotContext {
 
 	@Nonnull
 	public CompletableFuture<Message> replyFiles(@Nonnull Collection<? extends FileUpload> files) {
-		return replyMessage(getChannel().sendFiles(files)).submit();
+		return submitReply(replyMessage(getChannel().sendFiles(files)));
 	}
 
 	// ===============* directf *===============
@@ -716,6 +730,7 @@ public class EventContext extends BotContext {
 	protected EventContext(@Nonnull EventContext eventContext) {
 		super(eventContext);
 		this.event = eventContext.event;
+		this.trace = eventContext.trace;
 	}
 
 	@Nonnull
@@ -744,6 +759,16 @@ public class EventContext extends BotContext {
 		return message.setAllowedMentions(emptyList()).setMessageReference(getReference()).mentionRepliedUser(false);
 	}
 
+	@Nonnull
+	private CompletableFuture<Message> submitReply(@Nonnull MessageCreateAction action) {
+		var trace = this.trace;
+		if (trace == null)
+			return action.submit();
+
+		long start = nanoTime();
+		return action.submit().whenComplete((m, t) -> trace.record(REPLY, start));
+	}
+
 	@Nonnull
 	protected Message getReference() {
 		return getMessage();
@@ -17,6 +17,7 @@ package libot.core.listener;
 
 import static java.lang.String.format;
 import static java.lang.Thread.interrupted;
+import static libot.core.metrics.Metrics.gauge;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -51,6 +52,16 @@ public class EventWaiterListener implements EventListener {
 	private final AtomicInteger counter = new AtomicInteger();
 	private final Object mutex = new Object();
 
+	public EventWaiterListener() {
+		gauge("libot_event_waiters", "Number of pending event waiters").register(this::getWaiterCount);
+	}
+
+	public int getWaiterCount() {
+		synchronized (this.mutex) {
+			return this.eventWaiters.size();
+		}
+	}
+
 	/**
 	 * Pauses the current thread and awaits a certain event.<br>
 	 * <strong>This will throw a {@link IllegalArgumentException} if you do not access it
@@ -15,7 +15,9 @@
  */
 package libot.core.listener;
 
+import static java.lang.System.nanoTime;
 import static java.util.regex.Pattern.*;
+import static libot.core.metrics.Trace.Span.MATCH;
 
 import java.util.*;
 import java.util.regex.*;
@@ -23,6 +25,7 @@ import java.util.regex.*;
 import javax.annotation.Nonnull;
 
 import libot.core.entity.*;
+import libot.core.metrics.Traces;
 import libot.provider.CustomizationsProvider;
 import net.dv8tion.jda.api.events.message.*;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -41,6 +44,7 @@ public class MessageListener extends ListenerAdapter {
 		if (!event.isFromGuild() || event.getAuthor().isBot() && event.getAuthor().getIdLong() != 803001754639007754L)
 			return;
 
+		long start = nanoTime();
 		var prefix = Prefix.resolve(event, this.bot);
 
 		var raw = event.getMessage().getContentRaw();
@@ -51,12 +55,17 @@ public class MessageListener extends ListenerAdapter {
 		if (!matcher.matches())
 			throw new IllegalStateException("Message doesn't match the command regex, but isCommand() was true");
 
-		this.bot.getCommands()
-			.get(matcher.group(1))
-			.ifPresent(c -> c.run(new EventContext(this.bot, event), matcher.group(2)));
+		this.bot.getCommands().get(matcher.group(1)).ifPresent(c -> {
+			var trace = Traces.sample(event.getGuild().getIdLong());
+			if (trace != null) {
+				trace.setCommand(c.getName());
+				trace.record(MATCH, start);
+			}
+			c.run(new EventContext(this.bot, event, trace), matcher.group(2));
+		});
 	}
 
-	private static record Prefix(@Nonnull String string, long selfId) {
+	static record Prefix(@Nonnull String string, long selfId) {
 
 		private static final Map<Prefix, Pattern> PATTERN_CACHE = new HashMap<>();
 
@@ -83,7 +92,7 @@ public class MessageListener extends ListenerAdapter {
 
 		@Nonnull
 		@SuppressWarnings("null")
-		private Matcher getCommandCallMatcher(String input) {
+		Matcher getCommandCallMatcher(String input) {
 			return PATTERN_CACHE.computeIfAbsent(this, p -> {
 				return compile("(?:<@!?%d>|%s) *([^\\s]+)(?:\\s(.*))?".formatted(p.selfId(), quote(p.string())),
 							   DOTALL | UNICODE_CHARACTER_CLASS);
@@ -0,0 +1,51 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+
+import javax.annotation.Nonnull;
+
+public class Counter extends Metric<DoubleAdder> {
+
+	Counter(@Nonnull String name, @Nonnull String help, @Nonnull String... labelNames) {
+		super(name, help, labelNames);
+	}
+
+	public void inc(@Nonnull String... labelValues) {
+		inc(1, labelValues);
+	}
+
+	public void inc(double amount, @Nonnull String... labelValues) {
+		child(labelValues).add(amount);
+	}
+
+	@Override
+	public String getType() {
+		return "counter";
+	}
+
+	@Override
+	protected DoubleAdder createChild() {
+		return new DoubleAdder();
+	}
+
+	@Override
+	protected void writeChild(StringBuilder out, String labels, DoubleAdder child) {
+		out.append(sample(getName(), labels, child.sum()));
+	}
+
+}
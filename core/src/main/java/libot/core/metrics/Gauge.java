@@ -0,0 +1,53 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.metrics;
+
+import java.util.function.DoubleSupplier;
+
+import javax.annotation.Nonnull;
+
+public class Gauge extends Metric<DoubleSupplier> {
+
+	private static final DoubleSupplier ZERO = () -> 0;
+
+	Gauge(@Nonnull String name, @Nonnull String help, @Nonnull String... labelNames) {
+		super(name, help, labelNames);
+	}
+
+	public void set(double value, @Nonnull String... labelValues) {
+		putChild(() -> value, labelValues);
+	}
+
+	public void register(@Nonnull DoubleSupplier supplier, @Nonnull String... labelValues) {
+		putChild(supplier, labelValues);
+	}
+
+	@Override
+	public String getType() {
+		return "gauge";
+	}
+
+	@Override
+	protected DoubleSupplier createChild() {
+		return ZERO;
+	}
+
+	@Override
+	protected void writeChild(StringBuilder out, String labels, DoubleSupplier child) {
+		out.append(sample(getName(), labels, child.getAsDouble()));
+	}
+
+}
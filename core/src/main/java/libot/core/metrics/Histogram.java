@@ -0,0 +1,87 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.metrics;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.atomic.*;
+
+import javax.annotation.Nonnull;
+
+public class Histogram extends Metric<Histogram.Buckets> {
+
+	public static final double[] LATENCY_BUCKETS =
+		{ 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60 };
+
+	private static final double NANOS_PER_SECOND = SECONDS.toNanos(1);
+
+	@Nonnull private final double[] bounds;
+
+	static final class Buckets {
+
+		@Nonnull private final LongAdder[] counts;
+		@Nonnull private final DoubleAdder sum = new DoubleAdder();
+
+		private Buckets(int size) {
+			this.counts = new LongAdder[size + 1];
+			for (int i = 0; i < this.counts.length; i++)
+				this.counts[i] = new LongAdder();
+		}
+
+	}
+
+	Histogram(@Nonnull String name, @Nonnull String help, @Nonnull double[] bounds, @Nonnull String... labelNames) {
+		super(name, help, labelNames);
+		this.bounds = bounds.clone();
+	}
+
+	public void observe(double value, @Nonnull String... labelValues) {
+		var buckets = child(labelValues);
+		int i = 0;
+		while (i < this.bounds.length && value > this.bounds[i])
+			i++;
+		buckets.counts[i].increment();
+		buckets.sum.add(value);
+	}
+
+	public void observeNanos(long nanos, @Nonnull String... labelValues) {
+		observe(nanos / NANOS_PER_SECOND, labelValues);
+	}
+
+	@Override
+	public String getType() {
+		return "histogram";
+	}
+
+	@Override
+	protected Buckets createChild() {
+		return new Buckets(this.bounds.length);
+	}
+
+	@Override
+	@SuppressWarnings("null")
+	protected void writeChild(StringBuilder out, String labels, Buckets child) {
+		long cumulative = 0;
+		for (int i = 0; i < child.counts.length; i++) {
+			cumulative += child.counts[i].sum();
+			var bound = i < this.bounds.length ? Double.toString(this.bounds[i]) : "+Inf";
+			out.append(sample(getName() + "_bucket", withLabel(labels, "le", bound), cumulative));
+		}
+		out.append(sample(getName() + "_sum", labels, child.sum.sum()));
+		out.append(sample(getName() + "_count", labels, cumulative));
+	}
+
+}
@@ -0,0 +1,110 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.metrics;
+
+import static java.lang.String.format;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+
+public abstract class Metric<C> {
+
+	@Nonnull private final String name;
+	@Nonnull private final String help;
+	@Nonnull private final String[] labelNames;
+	@Nonnull private final Map<List<String>, C> children = new ConcurrentHashMap<>();
+
+	protected Metric(@Nonnull String name, @Nonnull String help, @Nonnull String... labelNames) {
+		this.name = name;
+		this.help = help;
+		this.labelNames = labelNames;
+	}
+
+	@Nonnull
+	public String getName() {
+		return this.name;
+	}
+
+	@Nonnull
+	public abstract String getType();
+
+	@Nonnull
+	@SuppressWarnings("null")
+	protected C child(@Nonnull String... labelValues) {
+		return this.children.computeIfAbsent(key(labelValues), k -> createChild());
+	}
+
+	protected void putChild(@Nonnull C child, @Nonnull String... labelValues) {
+		this.children.put(key(labelValues), child);
+	}
+
+	public void remove(@Nonnull String... labelValues) {
+		this.children.remove(key(labelValues));
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	private List<String> key(@Nonnull String... labelValues) {
+		if (labelValues.length != this.labelNames.length)
+			throw new IllegalArgumentException(format("%s expects %d label values, got %d", this.name,
+													  this.labelNames.length, labelValues.length));
+		return List.of(labelValues);
+	}
+
+	@Nonnull
+	protected abstract C createChild();
+
+	protected abstract void writeChild(@Nonnull StringBuilder out, @Nonnull String labels, @Nonnull C child);
+
+	void write(@Nonnull StringBuilder out) {
+		out.append("# HELP ").append(this.name).append(' ').append(escape(this.help, false)).append('\n');
+		out.append("# TYPE ").append(this.name).append(' ').append(getType()).append('\n');
+		this.children.forEach((values, child) -> writeChild(out, formatLabels(values), child));
+	}
+
+	@Nonnull
+	private String formatLabels(@Nonnull List<String> values) {
+		var labels = new StringBuilder();
+		for (int i = 0; i < this.labelNames.length; i++) {
+			if (i != 0)
+				labels.append(',');
+			labels.append(this.labelNames[i]).append("=\"").append(escape(values.get(i), true)).append('"');
+		}
+		return labels.toString();
+	}
+
+	@Nonnull
+	protected static String withLabel(@Nonnull String labels, @Nonnull String name, @Nonnull String value) {
+		var label = name + "=\"" + value + "\"";
+		return labels.isEmpty() ? label : labels + "," + label;
+	}
+
+	@Nonnull
+	protected static String sample(@Nonnull String name, @Nonnull String labels, double value) {
+		var formatted = Double.isInfinite(value) ? (value > 0 ? "+Inf" : "-Inf") : Double.toString(value);
+		return labels.isEmpty() ? name + " " + formatted + "\n" : name + "{" + labels + "} " + formatted + "\n";
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	private static String escape(@Nonnull String value, boolean quotes) {
+		var escaped = value.replace("\\", "\\\\").replace("\n", "\\n");
+		return quotes ? escaped.replace("\"", "\\\"") : escaped;
+	}
+
+}
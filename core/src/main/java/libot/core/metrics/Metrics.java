@@ -0,0 +1,73 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.metrics;
+
+import static java.lang.String.format;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+public final class Metrics {
+
+	private static final String FORMAT_TYPE_MISMATCH = "Metric %s is already registered as a %s";
+
+	private static final Map<String, Metric<?>> METRICS = new ConcurrentSkipListMap<>();
+
+	@Nonnull
+	public static Counter counter(@Nonnull String name, @Nonnull String help, @Nonnull String... labelNames) {
+		return register(name, Counter.class, () -> new Counter(name, help, labelNames));
+	}
+
+	@Nonnull
+	public static Gauge gauge(@Nonnull String name, @Nonnull String help, @Nonnull String... labelNames) {
+		return register(name, Gauge.class, () -> new Gauge(name, help, labelNames));
+	}
+
+	@Nonnull
+	public static Histogram histogram(@Nonnull String name, @Nonnull String help, @Nonnull double[] buckets,
+									  @Nonnull String... labelNames) {
+		return register(name, Histogram.class, () -> new Histogram(name, help, buckets, labelNames));
+	}
+
+	@Nonnull
+	public static Histogram latencyHistogram(@Nonnull String name, @Nonnull String help,
+											 @Nonnull String... labelNames) {
+		return histogram(name, help, Histogram.LATENCY_BUCKETS, labelNames);
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	private static <T extends Metric<?>> T register(@Nonnull String name, @Nonnull Class<T> type,
+													@Nonnull Supplier<T> constructor) {
+		var metric = METRICS.computeIfAbsent(name, n -> constructor.get());
+		if (!type.isInstance(metric))
+			throw new IllegalStateException(format(FORMAT_TYPE_MISMATCH, name, metric.getType()));
+		return type.cast(metric);
+	}
+
+	@Nonnull
+	public static String scrape() {
+		var out = new StringBuilder();
+		METRICS.values().forEach(m -> m.write(out));
+		return out.toString();
+	}
+
+	private Metrics() {}
+
+}
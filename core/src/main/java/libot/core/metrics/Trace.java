@@ -0,0 +1,81 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.metrics;
+
+import static java.lang.System.nanoTime;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.*;
+
+public class Trace {
+
+	public enum Span {
+
+		MATCH,
+		QUEUE,
+		CHECK,
+		PARSE,
+		START,
+		EXECUTE,
+		REPLY;
+
+	}
+
+	private static final long NOT_RECORDED = -1;
+
+	private final long timestamp = System.currentTimeMillis();
+	private final long guildId;
+	@Nullable private volatile String command;
+	@Nonnull private final AtomicLongArray spans = new AtomicLongArray(Span.values().length);
+
+	public Trace(long guildId) {
+		this.guildId = guildId;
+		for (int i = 0; i < this.spans.length(); i++)
+			this.spans.set(i, NOT_RECORDED);
+	}
+
+	// only the first occurrence of a span is kept, so REPLY is the latency of the first reply
+	public void record(@Nonnull Span span, long startNanos) {
+		this.spans.compareAndSet(span.ordinal(), NOT_RECORDED, Math.max(0, nanoTime() - startNanos));
+	}
+
+	public long getTimestamp() {
+		return this.timestamp;
+	}
+
+	public long getGuildId() {
+		return this.guildId;
+	}
+
+	@Nullable
+	public String getCommand() {
+		return this.command;
+	}
+
+	public void setCommand(@Nonnull String command) {
+		this.command = command;
+	}
+
+	public boolean isRecorded(@Nonnull Span span) {
+		return this.spans.get(span.ordinal()) != NOT_RECORDED;
+	}
+
+	public long getNanos(@Nonnull Span span) {
+		return this.spans.get(span.ordinal());
+	}
+
+}
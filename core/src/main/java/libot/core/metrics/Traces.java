@@ -0,0 +1,140 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.metrics;
+
+import static java.lang.System.getenv;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.joining;
+import static libot.core.Constants.ENV_TRACE_SAMPLE_RATE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.*;
+
+import javax.annotation.*;
+
+import org.slf4j.Logger;
+
+import libot.core.metrics.Trace.Span;
+
+public final class Traces {
+
+	private static final Logger LOG = getLogger(Traces.class);
+
+	private static final int BUFFER_SIZE = 1024;
+	private static final double DEFAULT_SAMPLE_RATE = 0.01;
+	private static final double SAMPLE_RATE = parseSampleRate(getenv(ENV_TRACE_SAMPLE_RATE));
+
+	private static final AtomicReferenceArray<Trace> BUFFER = new AtomicReferenceArray<>(BUFFER_SIZE);
+	private static final AtomicLong NEXT = new AtomicLong();
+
+	public static record Percentiles(@Nonnull Span span, int count, long p50, long p90, long p99) {
+
+		@Nonnull
+		@SuppressWarnings("null")
+		public String format() {
+			return "%s=%d/%d/%d".formatted(this.span.name().toLowerCase(Locale.ROOT), NANOSECONDS.toMicros(this.p50),
+										   NANOSECONDS.toMicros(this.p90), NANOSECONDS.toMicros(this.p99));
+		}
+
+	}
+
+	@Nullable
+	public static Trace sample(long guildId) {
+		if (SAMPLE_RATE <= 0 || ThreadLocalRandom.current().nextDouble() >= SAMPLE_RATE)
+			return null;
+
+		var trace = new Trace(guildId);
+		BUFFER.set((int) (NEXT.getAndIncrement() % BUFFER_SIZE), trace);
+		return trace;
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	public static List<Trace> getTraces() {
+		long next = NEXT.get();
+		var traces = new ArrayList<Trace>(BUFFER_SIZE);
+		for (long i = next - 1; i >= 0 && i >= next - BUFFER_SIZE; i--) {
+			var trace = BUFFER.get((int) (i % BUFFER_SIZE));
+			if (trace != null)
+				traces.add(trace);
+		}
+		return traces;
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	public static List<Percentiles> getPercentiles() {
+		var traces = getTraces();
+		return Arrays.stream(Span.values()).map(s -> {
+			var durations =
+				traces.stream().filter(t -> t.isRecorded(s)).mapToLong(t -> t.getNanos(s)).sorted().toArray();
+			return new Percentiles(s, durations.length, percentile(durations, 0.5), percentile(durations, 0.9),
+								   percentile(durations, 0.99));
+		}).toList();
+	}
+
+	private static long percentile(@Nonnull long[] sorted, double percentile) {
+		if (sorted.length == 0)
+			return 0;
+		return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	public static String dump() {
+		var sb = new StringBuilder();
+		for (var trace : getTraces()) {
+			sb.append(Instant.ofEpochMilli(trace.getTimestamp()))
+				.append(' ')
+				.append(trace.getCommand())
+				.append(' ')
+				.append(trace.getGuildId());
+			for (var span : Span.values()) {
+				sb.append(' ').append(span.name().toLowerCase(Locale.ROOT)).append('=');
+				if (trace.isRecorded(span))
+					sb.append(NANOSECONDS.toMicros(trace.getNanos(span)));
+				else
+					sb.append('-');
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	public static String summarize() {
+		return getPercentiles().stream().map(Percentiles::format).collect(joining(";"));
+	}
+
+	private static double parseSampleRate(@Nullable String rate) {
+		if (rate == null)
+			return DEFAULT_SAMPLE_RATE;
+
+		try {
+			return Double.parseDouble(rate);
+		} catch (NumberFormatException e) {
+			LOG.warn("Invalid {}, using the default sample rate", ENV_TRACE_SAMPLE_RATE);
+			return DEFAULT_SAMPLE_RATE;
+		}
+	}
+
+	private Traces() {}
+
+}
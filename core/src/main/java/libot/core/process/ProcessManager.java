@@ -16,9 +16,12 @@
 package libot.core.process;
 
 import static java.lang.Integer.*;
+import static java.lang.System.nanoTime;
 import static java.lang.Thread.currentThread;
 import static java.util.Collections.unmodifiableCollection;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static libot.core.metrics.Metrics.*;
+import static libot.core.metrics.Trace.Span.*;
 import static libot.core.ratelimit.CommandRatelimitManager.*;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -38,6 +41,7 @@ import libot.core.command.Command;
 import libot.core.command.exception.ExceptionHandler;
 import libot.core.command.exception.startup.*;
 import libot.core.entity.*;
+import libot.core.metrics.*;
 import libot.core.ratelimit.CommandRatelimitManager;
 import libot.provider.ConfigurationProvider;
 
@@ -56,6 +60,14 @@ public class ProcessManager {
 	private static final ExecutorService STARTUPS =
 		newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("startup-executor").build());
 
+	private static final Histogram STARTUP_TIME =
+		latencyHistogram("libot_command_startup_seconds", "Time spent starting commands up", "command");
+	private static final Histogram EXECUTION_TIME =
+		latencyHistogram("libot_command_execution_seconds", "Time spent executing commands", "command");
+	static {
+		gauge("libot_processes", "Number of running command processes").register(PROCESSES::size);
+	}
+
 	public static class CommandProcess {
 
 		private final int pid;
@@ -84,7 +96,11 @@ public class ProcessManager {
 
 		@SuppressWarnings("java:S1181")
 		void start() {
+			long created = nanoTime();
+			var trace = this.ctx.getTrace();
 			var thread = new Thread(() -> {
+				long start = nanoTime();
+				record(trace, START, created);
 				try {
 					this.ctx.getCommand().execute(this.ctx);
 
@@ -95,6 +111,8 @@ public class ProcessManager {
 					ExceptionHandler.handle(t, this.ctx);
 
 				} finally {
+					EXECUTION_TIME.observeNanos(nanoTime() - start, getCommand().getName());
+					record(trace, EXECUTE, start);
 					PROCESSES.remove(this.getPid());
 				}
 			});
@@ -171,11 +189,18 @@ public class ProcessManager {
 
 	@SuppressWarnings("null")
 	public static void run(@Nonnull Command cmd, @Nonnull EventContext eventContext, @Nullable String input) {
+		var trace = eventContext.getTrace();
+		long queued = nanoTime();
 		STARTUPS.submit(EHandle.handle(() -> {
+			long start = nanoTime();
+			record(trace, QUEUE, queued);
 			doStartupCheck(cmd, eventContext);
 			killSuperfluousProcesses(eventContext);
+			record(trace, CHECK, start);
 
+			long parse = nanoTime();
 			var args = cmd.getParameters().parse(input);
+			record(trace, PARSE, parse);
 			var context = new CommandContext(eventContext, cmd, args);
 			var process = CommandProcess.create(context);
 
@@ -183,6 +208,7 @@ public class ProcessManager {
 				LOG.trace("Launching {}", process);
 
 			process.start();
+			STARTUP_TIME.observeNanos(nanoTime() - start, cmd.getName());
 
 		}, e -> {
 			if (LOG.isTraceEnabled())
@@ -191,6 +217,11 @@ public class ProcessManager {
 		}));
 	}
 
+	private static void record(@Nullable Trace trace, @Nonnull Trace.Span span, long start) {
+		if (trace != null)
+			trace.record(span, start);
+	}
+
 	private static void killSuperfluousProcesses(@Nonnull EventContext ctx) {
 		PROCESSES.values()
 			.stream()
@@ -0,0 +1,114 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.shred;
+
+import static com.google.common.cache.CacheBuilder.newBuilder;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static libot.util.Utilities.exceptionFuture;
+import static net.dv8tion.jda.api.requests.ErrorResponse.*;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import javax.annotation.*;
+
+import com.google.common.cache.Cache;
+
+import net.dv8tion.jda.api.entities.*;
+import net.dv8tion.jda.api.entities.channel.concrete.PrivateChannel;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.requests.RestAction;
+
+public class PrivateChannelCache {
+
+	private static final String FORMAT_UNREACHABLE = "User %d can't be messaged from this shred";
+
+	private static final long MAX_CHANNELS = 10_000;
+	private static final long MAX_FAILURES = 10_000;
+	private static final Duration CHANNEL_EXPIRY = Duration.ofMinutes(30);
+	private static final Duration CLOSED_EXPIRY = Duration.ofHours(1);
+
+	private static final Object FAILURE_CACHE_VALUE = new Object();
+
+	public static record PrivateChannelKey(long userId, long shredId) {
+
+		@Nonnull
+		public static PrivateChannelKey of(@Nonnull User user) {
+			return new PrivateChannelKey(user.getIdLong(), user.getJDA().getSelfUser().getIdLong());
+		}
+
+	}
+
+	@Nonnull private final Cache<PrivateChannelKey, PrivateChannel> channels;
+	@Nonnull private final Cache<PrivateChannelKey, Object> closed;
+	@Nonnull private final Cache<PrivateChannelKey, Object> failures;
+
+	@SuppressWarnings("null")
+	public PrivateChannelCache(int shredCount) {
+		this.channels = newBuilder().maximumSize(MAX_CHANNELS).expireAfterAccess(CHANNEL_EXPIRY).build();
+		this.closed = newBuilder().maximumSize(MAX_FAILURES).expireAfterWrite(CLOSED_EXPIRY).build();
+		this.failures =
+			newBuilder().maximumSize(MAX_FAILURES).expireAfterWrite(Duration.ofSeconds(shredCount * 5L)).build();
+	}
+
+	public boolean isReachable(long userId, long shredId) {
+		var key = new PrivateChannelKey(userId, shredId);
+		return this.closed.getIfPresent(key) == null && this.failures.getIfPresent(key) == null;
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	public CompletableFuture<PrivateChannel> open(@Nonnull User user) {
+		var key = PrivateChannelKey.of(user);
+		if (!isReachable(key.userId(), key.shredId()))
+			return exceptionFuture(new IllegalStateException(FORMAT_UNREACHABLE.formatted(key.userId())));
+
+		var channel = this.channels.getIfPresent(key);
+		if (channel != null)
+			return completedFuture(channel);
+
+		return user.openPrivateChannel().submit().whenComplete((c, t) -> {
+			if (c != null)
+				this.channels.put(key, c);
+			else
+				onFailure(key, t);
+		});
+	}
+
+	@Nonnull
+	public CompletableFuture<Message> send(@Nonnull User user,
+										   @Nonnull Function<PrivateChannel, RestAction<Message>> action) {
+		var key = PrivateChannelKey.of(user);
+		return open(user).thenCompose(c -> action.apply(c).submit()).whenComplete((m, t) -> {
+			if (t != null)
+				onFailure(key, t);
+		});
+	}
+
+	private void onFailure(@Nonnull PrivateChannelKey key, @Nullable Throwable t) {
+		var cause = t instanceof CompletionException ? t.getCause() : t;
+		if (!(cause instanceof ErrorResponseException e))
+			return;
+
+		this.channels.invalidate(key);
+		if (e.getErrorResponse() == CANNOT_SEND_TO_USER)
+			this.closed.put(key, FAILURE_CACHE_VALUE);
+		else if (e.getErrorResponse() != UNKNOWN_CHANNEL)
+			this.failures.put(key, FAILURE_CACHE_VALUE);
+	}
+
+}
@@ -0,0 +1,282 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.shred;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.function.Predicate.not;
+import static java.util.stream.Collectors.joining;
+import static net.dv8tion.jda.api.entities.Message.*;
+import static net.dv8tion.jda.api.entities.MessageEmbed.EMBED_MAX_LENGTH_BOT;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import javax.annotation.Nonnull;
+
+import org.eclipse.collections.api.factory.primitive.LongObjectMaps;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.slf4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import libot.core.shred.Shredder.Shred;
+import net.dv8tion.jda.api.entities.*;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.utils.messages.*;
+
+public class PrivateMessageQueue {
+
+	private static final Logger LOG = getLogger(PrivateMessageQueue.class);
+
+	private static final long COALESCE_DELAY = 500;
+	private static final int MAX_IN_FLIGHT_PER_SHRED = 4;
+	private static final String COALESCE_SEPARATOR = "\n";
+
+	private static record PendingMessage(@Nonnull MessageCreateData message,
+		@Nonnull CompletableFuture<Message> result) {}
+
+	private static final class Delivery {
+
+		private final long userId;
+		@Nonnull private final List<PendingMessage> messages;
+		@Nonnull private final MessageCreateData message;
+		private int shredIndex = 0;
+
+		private Delivery(long userId, @Nonnull List<PendingMessage> messages) {
+			this.userId = userId;
+			this.messages = messages;
+			this.message = coalesce(messages);
+		}
+
+		private void complete(@Nonnull Message sent) {
+			this.messages.forEach(m -> m.result().complete(sent));
+		}
+
+		private void fail(@Nonnull Throwable t) {
+			this.messages.forEach(m -> m.result().completeExceptionally(t));
+		}
+
+	}
+
+	private static final class Lane {
+
+		@Nonnull private final Deque<Delivery> waiting = new ArrayDeque<>();
+		private int inFlight = 0;
+
+	}
+
+	@Nonnull private final List<Shred> shreds;
+	@Nonnull private final Lane[] lanes;
+	// users with an open coalescing window, mapped to the messages that arrived during it
+	@Nonnull private final MutableLongObjectMap<List<PendingMessage>> pending = LongObjectMaps.mutable.empty();
+	@Nonnull private final Set<CompletableFuture<Message>> outstanding = ConcurrentHashMap.newKeySet();
+	@Nonnull private final PrivateChannelCache channels;
+	@Nonnull private final ScheduledExecutorService scheduler =
+		newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("private-message-queue")
+			.setDaemon(true)
+			.build());
+
+	@SuppressWarnings("null")
+	public PrivateMessageQueue(@Nonnull List<Shred> shreds, @Nonnull PrivateChannelCache channels) {
+		this.shreds = shreds;
+		this.channels = channels;
+		this.lanes = new Lane[shreds.size()];
+		Arrays.setAll(this.lanes, i -> new Lane());
+	}
+
+	/**
+	 * Sends a private message to a user. A message is sent right away unless another
+	 * message was sent to the same user less than 500 ms ago. In that case it waits for
+	 * the rest of that window and is merged with the other messages that arrive during
+	 * it. Every message merged into the same delivery
+	 * completes with the same {@link Message}.
+	 *
+	 * @param userId
+	 *            the ID of the recipient
+	 * @param message
+	 *            the message to send
+	 *
+	 * @return a future that completes with the message that was sent
+	 */
+	@Nonnull
+	public CompletableFuture<Message> enqueue(long userId, @Nonnull MessageCreateData message) {
+		var result = new CompletableFuture<Message>();
+		this.outstanding.add(result);
+		result.whenComplete((m, t) -> this.outstanding.remove(result));
+
+		var pendingMessage = new PendingMessage(message, result);
+		synchronized (this.pending) {
+			var queued = this.pending.get(userId);
+			if (queued != null) {
+				queued.add(pendingMessage);
+				return result;
+			}
+
+			// opens a coalescing window for the messages that follow this one
+			this.pending.put(userId, new ArrayList<>());
+			this.scheduler.schedule(() -> flush(userId), COALESCE_DELAY, MILLISECONDS);
+		}
+		deliver(new Delivery(userId, List.of(pendingMessage)));
+		return result;
+	}
+
+	/**
+	 * Sends all messages that are waiting for their coalescing window to close.
+	 *
+	 * @return a future that completes once every message enqueued so far has been
+	 *         sent, or has failed
+	 */
+	@Nonnull
+	@SuppressWarnings("null")
+	public CompletableFuture<Void> flushAll() {
+		long[] userIds;
+		synchronized (this.pending) {
+			userIds = this.pending.keySet().toArray();
+		}
+		for (long userId : userIds)
+			flush(userId);
+
+		return CompletableFuture.allOf(this.outstanding.toArray(CompletableFuture[]::new));
+	}
+
+	private void flush(long userId) {
+		List<PendingMessage> queued;
+		synchronized (this.pending) {
+			queued = this.pending.remove(userId);
+		}
+		if (queued == null || queued.isEmpty())
+			return;
+
+		var batch = new ArrayList<PendingMessage>();
+		for (var message : queued) {
+			if (!batch.isEmpty() && !canCoalesce(batch, message)) {
+				deliver(new Delivery(userId, batch));
+				batch = new ArrayList<>();
+			}
+			batch.add(message);
+		}
+		deliver(new Delivery(userId, batch));
+	}
+
+	private void deliver(@Nonnull Delivery delivery) {
+		while (delivery.shredIndex < this.shreds.size()) {
+			var shred = this.shreds.get(delivery.shredIndex);
+			if (shred.jda().getUserById(delivery.userId) != null
+				&& this.channels.isReachable(delivery.userId, shred.id()))
+				break;
+			delivery.shredIndex++;
+		}
+
+		if (delivery.shredIndex >= this.shreds.size()) {
+			delivery.fail(new IllegalStateException("Failed to send the message"));
+			return;
+		}
+
+		var lane = this.lanes[delivery.shredIndex];
+		synchronized (lane) {
+			if (lane.inFlight >= MAX_IN_FLIGHT_PER_SHRED) {
+				lane.waiting.add(delivery);
+				return;
+			}
+			lane.inFlight++;
+		}
+		send(delivery, lane);
+	}
+
+	@SuppressWarnings("null")
+	private void send(@Nonnull Delivery delivery, @Nonnull Lane lane) {
+		var shred = this.shreds.get(delivery.shredIndex);
+		var user = shred.jda().getUserById(delivery.userId);
+		if (user == null) {
+			release(lane);
+			delivery.shredIndex++;
+			deliver(delivery);
+			return;
+		}
+
+		this.channels.send(user, c -> c.sendMessage(delivery.message)).whenComplete((m, t) -> {
+			release(lane);
+			if (t == null) {
+				delivery.complete(m);
+				return;
+			}
+
+			var cause = t instanceof CompletionException ? t.getCause() : t;
+			if (cause instanceof ErrorResponseException || !this.channels.isReachable(delivery.userId, shred.id())) {
+				delivery.shredIndex++;
+				deliver(delivery);
+
+			} else {
+				LOG.error("Failed to send a message to {} due to an unexpected error", delivery.userId);
+				LOG.error("", cause);
+				delivery.fail(cause);
+			}
+		});
+	}
+
+	private void release(@Nonnull Lane lane) {
+		Delivery next;
+		synchronized (lane) {
+			next = lane.waiting.poll();
+			if (next == null) {
+				lane.inFlight--;
+				return;
+			}
+		}
+		send(next, lane); // the permit is handed over to the next delivery
+	}
+
+	private static boolean canCoalesce(@Nonnull List<PendingMessage> batch, @Nonnull PendingMessage candidate) {
+		var messages = new ArrayList<MessageCreateData>(batch.size() + 1);
+		batch.forEach(m -> messages.add(m.message()));
+		messages.add(candidate.message());
+
+		if (messages.stream()
+			.anyMatch(m -> !m.getFiles().isEmpty() || !m.getComponents().isEmpty() || m.getPoll() != null || m.isTTS()
+						   || m.isSuppressEmbeds() != messages.get(0).isSuppressEmbeds()))
+			return false;
+
+		var content = messages.stream().map(MessageCreateData::getContent).filter(not(String::isEmpty)).toList();
+		int contentLength = content.stream().mapToInt(String::length).sum()
+							+ Math.max(0, content.size() - 1) * COALESCE_SEPARATOR.length();
+		if (contentLength > MAX_CONTENT_LENGTH)
+			return false;
+
+		var embeds = messages.stream().map(MessageCreateData::getEmbeds).flatMap(List::stream).toList();
+		return embeds.size() <= MAX_EMBED_COUNT
+			   && embeds.stream().mapToInt(MessageEmbed::getLength).sum() <= EMBED_MAX_LENGTH_BOT;
+	}
+
+	@Nonnull
+	@SuppressWarnings({ "null", "resource" })
+	private static MessageCreateData coalesce(@Nonnull List<PendingMessage> messages) {
+		if (messages.size() == 1)
+			return messages.get(0).message();
+
+		var first = messages.get(0).message();
+		return new MessageCreateBuilder().setContent(messages.stream()
+			.map(PendingMessage::message)
+			.map(MessageCreateData::getContent)
+			.filter(not(String::isEmpty))
+			.collect(joining(COALESCE_SEPARATOR)))
+			.setEmbeds(messages.stream().map(PendingMessage::message).flatMap(m -> m.getEmbeds().stream()).toList())
+			.setSuppressEmbeds(first.isSuppressEmbeds())
+			.build();
+	}
+
+}
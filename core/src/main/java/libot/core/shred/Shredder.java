@@ -15,10 +15,10 @@
  */
 package libot.core.shred;
 
-import static com.google.common.cache.CacheBuilder.newBuilder;
 import static java.lang.String.format;
 import static java.util.Arrays.stream;
 import static libot.core.Constants.RESOURCE_GUILDS;
+import static libot.core.metrics.Metrics.gauge;
 import static libot.core.process.ProcessManager.getCurrentProcess;
 import static libot.util.Utilities.concat;
 import static org.apache.commons.lang3.ArrayUtils.contains;
@@ -32,23 +32,17 @@ import java.util.stream.Stream;
 import javax.annotation.*;
 
 import org.eu.zajc.ef.consumer.execpt.all.AEConsumer;
-import org.slf4j.*;
-
-import com.google.common.cache.Cache;
 
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.channel.*;
 import net.dv8tion.jda.api.entities.channel.concrete.*;
 import net.dv8tion.jda.api.entities.emoji.Emoji;
-import net.dv8tion.jda.api.exceptions.ErrorResponseException;
 import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
 import net.dv8tion.jda.api.utils.messages.*;
 
 public class Shredder {
 
-	private static final Logger LOG = LoggerFactory.getLogger(Shredder.class);
-
 	private static final String FORMAT_CLASH_LEAVE = """
 		Leaving %s because there is another shred present (%s).""";
 
@@ -60,18 +54,22 @@ public class Shredder {
 
 	}
 
-	public static record PrivateMessageFailure(long userId, long shredId) {}
-
 	@Nonnull private final List<Shred> shreds;
 	@Nonnull private final Map<String, Emoji> emojiCache = new ConcurrentHashMap<>();
+	@Nonnull private final PrivateChannelCache privateChannels;
+	@Nonnull private final PrivateMessageQueue privateMessages;
 
-	private static final Object FAILURE_CACHE_VALUE = new Object();
-	@Nonnull private final Cache<PrivateMessageFailure, Object> failures;
-
-	@SuppressWarnings("null")
 	public Shredder(@Nonnull List<Shred> shreds) {
 		this.shreds = shreds;
-		this.failures = newBuilder().expireAfterWrite(Duration.ofSeconds(shreds.size() * 5L)).softValues().build();
+		this.privateChannels = new PrivateChannelCache(shreds.size());
+		this.privateMessages = new PrivateMessageQueue(shreds, this.privateChannels);
+
+		var ping = gauge("libot_gateway_ping_milliseconds", "Gateway ping of each shred", "shred");
+		var guilds = gauge("libot_guilds", "Number of guilds visible to each shred", "shred");
+		shreds.forEach(s -> {
+			ping.register(() -> s.jda().getGatewayPing(), s.name());
+			guilds.register(() -> s.jda().getGuildCache().size(), s.name());
+		});
 	}
 
 	public List<Shred> getShreds() {
@@ -128,38 +126,17 @@ public class Shredder {
 
 	@Nonnull
 	public CompletableFuture<Message> sendPrivateMessage(long userId, @Nonnull MessageCreateData message) {
-		var result = new CompletableFuture<Message>();
-		sendPrivateMessage(0, result, userId, message);
-		return result;
+		return this.privateMessages.enqueue(userId, message);
 	}
 
-	private void sendPrivateMessage(int shredIndex, @Nonnull CompletableFuture<Message> result, long userId,
-									@Nonnull MessageCreateData message) {
-		if (shredIndex >= getShreds().size()) {
-			result.completeExceptionally(new IllegalStateException("Failed to send the message"));
-			return;
-		}
-
-		var shred = getShreds().get(shredIndex);
-		var user = shred.jda().getUserById(userId);
-
-		var failureRecord = new PrivateMessageFailure(userId, shred.id());
-		if (user == null || this.failures.getIfPresent(failureRecord) != null) {
-			sendPrivateMessage(shredIndex + 1, result, userId, message);
-			return;
-		}
-
-		user.openPrivateChannel().flatMap(p -> p.sendMessage(message)).queue(result::complete, t -> {
-			if (t instanceof ErrorResponseException) {
-				this.failures.put(failureRecord, FAILURE_CACHE_VALUE);
-				sendPrivateMessage(shredIndex + 1, result, userId, message);
+	@Nonnull
+	public PrivateChannelCache getPrivateChannelCache() {
+		return this.privateChannels;
+	}
 
-			} else {
-				LOG.error("Failed to send a message to {} due to an unexpected error", userId);
-				LOG.error("", t);
-				result.completeExceptionally(t);
-			}
-		});
+	@Nonnull
+	public PrivateMessageQueue getPrivateMessageQueue() {
+		return this.privateMessages;
 	}
 
 	@Nullable
@@ -0,0 +1,88 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.startup;
+
+import static libot.util.ReflectionUtils.getSubtypes;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.List;
+
+import org.crac.*;
+import org.slf4j.Logger;
+
+import libot.core.command.CommandManager;
+import libot.core.data.DataManager;
+import libot.core.data.impl.MemoryDataManager;
+import libot.core.data.provider.*;
+import libot.core.shred.Shredder;
+import libot.listener.BotEventListener;
+import net.dv8tion.jda.api.hooks.EventListener;
+
+public final class Checkpoints {
+
+	private static final Logger LOG = getLogger(Checkpoints.class);
+
+	// No shreds are logged in at this point, so there are no gateway connections to
+	// close before the checkpoint - they're opened after the restore, like on a normal
+	// boot. Everything that doesn't depend on the environment is warmed up beforehand.
+	public static void checkpoint() {
+		LOG.info("Warming up for a checkpoint");
+		warmUp();
+
+		LOG.info("Creating a checkpoint");
+		try {
+			Core.checkpointRestore();
+			LOG.info("Restored from a checkpoint");
+
+		} catch (CheckpointException | UnsupportedOperationException e) {
+			LOG.error("Couldn't create a checkpoint, continuing without one", e);
+
+		} catch (RestoreException e) {
+			LOG.error("Couldn't restore from a checkpoint, continuing without one", e);
+		}
+	}
+
+	// Loads the commands and providers the way a normal boot does, but stops before any
+	// shred logs in. The providers are given an empty shredder and an in-memory
+	// DataManager, so a training run never touches the real data.
+	public static void train() {
+		LOG.info("Starting a training run");
+		warmUp();
+
+		var providers = ProviderManager.fromClasspath(new Shredder(List.of()), new MemoryDataManager());
+		providers.loadAll();
+		LOG.info("Loaded {} providers", providers.size());
+	}
+
+	private static void warmUp() {
+		getSubtypes(DataManager.class, libot.core.data.impl.Anchor.class).forEach(Checkpoints::initialize);
+		getSubtypes(Provider.class, libot.provider.Anchor.class).forEach(Checkpoints::initialize);
+		getSubtypes(EventListener.class, libot.listener.Anchor.class).forEach(Checkpoints::initialize);
+		getSubtypes(BotEventListener.class, libot.listener.Anchor.class).forEach(Checkpoints::initialize);
+		LOG.info("Warmed up {} commands", CommandManager.fromClasspath().size());
+	}
+
+	private static void initialize(Class<?> clazz) {
+		try {
+			Class.forName(clazz.getName(), true, clazz.getClassLoader());
+		} catch (ClassNotFoundException | LinkageError e) {
+			LOG.warn("Couldn't initialize {}: {}", clazz.getName(), e.toString());
+		}
+	}
+
+	private Checkpoints() {}
+
+}
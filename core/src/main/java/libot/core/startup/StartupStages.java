@@ -0,0 +1,111 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.core.startup;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static libot.core.metrics.Metrics.gauge;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import javax.annotation.*;
+
+import org.slf4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import libot.core.metrics.Gauge;
+
+public class StartupStages {
+
+	private static final Logger LOG = getLogger(StartupStages.class);
+	private static final Gauge STAGE_TIME =
+		gauge("libot_startup_stage_seconds", "Time taken by each startup stage", "stage");
+
+	public static record Stage(@Nonnull String name, @Nonnull Duration duration) {}
+
+	@FunctionalInterface
+	public interface Step {
+
+		void run() throws Exception;
+
+	}
+
+	private final long startTime = nanoTime();
+	@Nonnull private final Queue<Stage> stages = new ConcurrentLinkedQueue<>();
+	@Nonnull private final ExecutorService executor =
+		newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("startup-stage-%d").build());
+	@Nullable private volatile Duration total;
+
+	@Nonnull
+	@SuppressWarnings("null")
+	public <T> CompletableFuture<T> submit(@Nonnull String name, @Nonnull Callable<T> task,
+										   @Nonnull CompletableFuture<?>... dependencies) {
+		return allOf(dependencies).thenApplyAsync(v -> {
+			try {
+				return call(name, task);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, this.executor);
+	}
+
+	public <T> T call(@Nonnull String name, @Nonnull Callable<T> task) throws Exception {
+		LOG.debug("Starting stage {}", name);
+		long start = nanoTime();
+		try {
+			return task.call();
+		} finally {
+			var duration = Duration.ofNanos(nanoTime() - start);
+			this.stages.add(new Stage(name, duration));
+			STAGE_TIME.set(duration.toNanos() / 1e9, name);
+			LOG.info("Stage {} took {} ms", name, duration.toMillis());
+		}
+	}
+
+	public void run(@Nonnull String name, @Nonnull Step step) throws Exception {
+		call(name, () -> {
+			step.run();
+			return null;
+		});
+	}
+
+	public void finish() {
+		var elapsed = Duration.ofNanos(nanoTime() - this.startTime);
+		this.total = elapsed;
+		this.executor.shutdown();
+		LOG.info("Startup took {} ms", elapsed.toMillis());
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	public List<Stage> getStages() {
+		return List.copyOf(this.stages);
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	public Optional<Duration> getTotal() {
+		return Optional.ofNullable(this.total);
+	}
+
+}
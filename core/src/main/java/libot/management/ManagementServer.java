@@ -15,37 +15,59 @@
  */
 package libot.management;
 
-import static java.lang.Integer.toUnsignedString;
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.joining;
+import static java.util.regex.Pattern.compile;
 import static libot.core.Constants.VERSION;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.io.IOException;
+import java.io.*;
 import java.net.*;
-import java.util.Scanner;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
 
 import org.slf4j.Logger;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import libot.core.shred.Shredder;
+import libot.core.entity.BotContext;
+import libot.core.metrics.*;
+import libot.core.process.ProcessManager;
 import libot.core.shred.Shredder.Shred;
+import libot.core.startup.StartupStages;
 
 public class ManagementServer {
 
 	private static final Logger LOG = getLogger(ManagementServer.class);
-	private static final AtomicInteger THREAD_NAME_COUNTER = new AtomicInteger();
 
-	@Nonnull private final Shredder shredder;
+	private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(1);
+	private static final String KEEPALIVE = "KEEPALIVE";
+
+	private static final Pattern HTTP_REQUEST = compile("(GET|HEAD) ([^ ?]+)(?:\\?\\S*)? HTTP/1\\.([01])");
+	private static final Pattern HTTP_CONNECTION_CLOSE = compile("(?i)connection:\\s*close\\s*");
+	private static final String METRICS_PATH = "/metrics";
+	private static final String TRACES_PATH = "/traces";
+	private static final String METRICS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+	private static final String FORMAT_HTTP_RESPONSE = """
+		HTTP/1.1 %s\r
+		Content-Type: %s\r
+		Content-Length: %d\r
+		Connection: %s\r
+		\r
+		""";
+
+	@Nonnull private final BotContext bot;
+	@Nonnull private final StartupStages startup;
 	private final int port;
+	@Nonnull private final ThreadFactory connectionThreads = Thread.ofVirtual().name("management-socket-", 0).factory();
 
-	public ManagementServer(@Nonnull Shredder shredder, int port) {
-		this.shredder = shredder;
+	public ManagementServer(@Nonnull BotContext bot, @Nonnull StartupStages startup, int port) {
+		this.bot = bot;
+		this.startup = startup;
 		this.port = port;
 	}
 
@@ -62,39 +84,132 @@ public class ManagementServer {
 		}, "management-server").start();
 	}
 
-	@SuppressWarnings("null")
 	private void startAccepting(ServerSocket server) throws IOException {
 		try (server) {
 			LOG.info("Management server is running on port {}", this.port);
 			while (!Thread.interrupted()) {
 				@SuppressWarnings("resource")
 				var socket = server.accept();
-				new Thread(() -> {
+				this.connectionThreads.newThread(() -> {
 					try (socket) {
 						accept(socket);
+					} catch (SocketTimeoutException e) {
+						LOG.debug("Closing an idle management connection");
 					} catch (IOException e) {
 						LOG.error("Couldn't handle a connection", e);
 					}
-				}, format("management-socket-%s", toUnsignedString(THREAD_NAME_COUNTER.getAndIncrement()))).start();
+				}).start();
 			}
 		}
 	}
 
-	@SuppressWarnings("resource")
 	private void accept(@Nonnull Socket socket) throws IOException {
-		try (var s = new Scanner(socket.getInputStream(), UTF_8)) {
-			if (!s.hasNextLine())
-				return;
-			var resp = stream(s.nextLine().split(",")).map(this::handleCommand).collect(joining(","));
-			socket.getOutputStream().write(resp.getBytes(UTF_8));
+		socket.setSoTimeout((int) IDLE_TIMEOUT.toMillis());
+		var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+		var out = new BufferedOutputStream(socket.getOutputStream());
+
+		var line = in.readLine();
+		if (line == null)
+			return;
+
+		var http = HTTP_REQUEST.matcher(line);
+		if (http.matches()) {
+			serveHttp(in, out, http.group(1), http.group(2), "1".equals(http.group(3)));
+
+		} else if (KEEPALIVE.equals(line)) {
+			serveLines(in, out);
+
+		} else {
+			// one-shot mode, the response is terminated by closing the connection
+			out.write(handleLine(line).getBytes(UTF_8));
+			out.flush();
+		}
+	}
+
+	private void serveLines(@Nonnull BufferedReader in, @Nonnull OutputStream out) throws IOException {
+		String line;
+		while ((line = in.readLine()) != null) {
+			out.write(handleLine(line).getBytes(UTF_8));
+			out.write('\n');
+			if (!in.ready()) // pipelined requests are answered in a single write
+				out.flush();
+		}
+		out.flush();
+	}
+
+	private void serveHttp(@Nonnull BufferedReader in, @Nonnull OutputStream out, @Nonnull String method,
+						   @Nonnull String path, boolean keepAlive) throws IOException {
+		while (true) {
+			String header;
+			while ((header = in.readLine()) != null && !header.isEmpty()) {
+				if (HTTP_CONNECTION_CLOSE.matcher(header).matches())
+					keepAlive = false;
+			}
+			if (header == null)
+				keepAlive = false;
+
+			handleHttp(out, method, path, keepAlive);
+			if (!in.ready())
+				out.flush();
+			if (!keepAlive)
+				break;
+
+			String line;
+			do {
+				line = in.readLine();
+			} while (line != null && line.isEmpty());
+			if (line == null)
+				break;
+
+			var http = HTTP_REQUEST.matcher(line);
+			if (!http.matches())
+				break;
+			method = http.group(1);
+			path = http.group(2);
+			keepAlive = "1".equals(http.group(3));
+		}
+		out.flush();
+	}
+
+	@SuppressWarnings("null")
+	private static void handleHttp(@Nonnull OutputStream out, @Nonnull String method, @Nonnull String path,
+								   boolean keepAlive) throws IOException {
+		String status;
+		String contentType;
+		String body;
+		if (METRICS_PATH.equals(path)) {
+			status = "200 OK";
+			contentType = METRICS_CONTENT_TYPE;
+			body = Metrics.scrape();
+		} else if (TRACES_PATH.equals(path)) {
+			status = "200 OK";
+			contentType = "text/plain; charset=utf-8";
+			body = Traces.dump();
+		} else {
+			status = "404 Not Found";
+			contentType = "text/plain; charset=utf-8";
+			body = "Not found\n";
 		}
+
+		var bytes = body.getBytes(UTF_8);
+		var connection = keepAlive ? "keep-alive" : "close";
+		out.write(format(FORMAT_HTTP_RESPONSE, status, contentType, bytes.length, connection).getBytes(UTF_8));
+		if (!"HEAD".equals(method))
+			out.write(bytes);
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	private String handleLine(@Nonnull String line) {
+		return stream(line.split(",")).map(String::strip).map(this::handleCommand).collect(joining(","));
 	}
 
 	@Nonnull
 	@SuppressWarnings("null")
 	private String handleCommand(@Nonnull String command) {
+		var shredder = this.bot.getShredder();
 		return switch (command) {
-			case "BESTID" -> this.shredder.getShreds()
+			case "BESTID" -> shredder.getShreds()
 				.stream()
 				.map(Shred::jda)
 				.sorted((j1, j2) -> Long.compare(j1.getGuildCache().size(), j2.getGuildCache().size()))
@@ -106,8 +221,29 @@ public class ManagementServer {
 						return j.getSelfUser().getId();
 				})
 				.orElse("null");
-			case "GUILDS" -> Long.toString(this.shredder.getGuildCount());
+			case "GUILDS" -> Long.toString(shredder.getGuildCount());
+			case "SHREDS" -> shredder.getShreds()
+				.stream()
+				.map(s -> s.name() + "=" + s.jda().getGuildCache().size())
+				.collect(joining(";"));
+			case "PROCESSES" -> ProcessManager.getProcesses()
+				.stream()
+				.map(p -> "%d:%s:%d:%d".formatted(p.getPid(), p.getCommand().getName(), p.getGuildId(),
+												  p.getUserId()))
+				.collect(joining(";"));
+			case "PROVIDERS" -> this.bot.getProviders()
+				.getAll()
+				.values()
+				.stream()
+				.map(p -> p.getClass().getSimpleName() + "=" + p.size())
+				.sorted()
+				.collect(joining(";"));
+			case "TRACES" -> Traces.summarize();
 			case "VERSION" -> VERSION;
+			case "STARTUP" -> this.startup.getStages()
+				.stream()
+				.map(s -> s.name() + "=" + s.duration().toMillis())
+				.collect(joining(";"));
 			default -> "ERR";
 		};
 	}
@@ -18,6 +18,7 @@ package libot.provider;
 import static java.util.Collections.synchronizedSet;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Nonnull;
 
@@ -49,6 +50,8 @@ public class ConfigurationProvider extends Provider<BotConfiguration> {
 
 	}
 
+	private final AtomicLong revision = new AtomicLong();
+
 	public ConfigurationProvider(@Nonnull Shredder shredder, @Nonnull DataManager dataManager) {
 		super(shredder, dataManager, new TypeToken<>() {}, "configuration");
 	}
@@ -61,6 +64,7 @@ public class ConfigurationProvider extends Provider<BotConfiguration> {
 		if (isDisabled(command))
 			return false;
 		this.data.getDisabledCommands().add(command.getId());
+		this.revision.incrementAndGet();
 		markDirty();
 		return true;
 	}
@@ -69,10 +73,18 @@ public class ConfigurationProvider extends Provider<BotConfiguration> {
 		if (!isDisabled(command))
 			return false;
 		this.data.getDisabledCommands().remove(command.getId());
+		this.revision.incrementAndGet();
 		markDirty();
 		return true;
 	}
 
+	/**
+	 * @return a number that changes every time a command is globally disabled or enabled
+	 */
+	public long getRevision() {
+		return this.revision.get();
+	}
+
 	@Override
 	protected BotConfiguration createEmptyData() {
 		return new BotConfiguration();
@@ -16,13 +16,16 @@
 package libot.util;
 
 import static java.lang.reflect.Modifier.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.reflections.scanners.Scanners.SubTypes;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.util.Objects;
+import java.io.*;
+import java.net.URL;
+import java.util.*;
 import java.util.stream.Stream;
 
-import javax.annotation.Nonnull;
+import javax.annotation.*;
 
 import org.eu.zajc.ef.function.except.EFunction;
 import org.reflections.Reflections;
@@ -31,6 +34,83 @@ import org.slf4j.Logger;
 public class ReflectionUtils {
 
 	private static final Logger LOG = getLogger(ReflectionUtils.class);
+	private static final String ROOT_PACKAGE = "libot";
+	private static final String INDEX_PATH = "META-INF/libot/index/";
+	private static final String PROCESSOR_PACKAGE = "libot/core/processor";
+
+	@Nullable private static Reflections reflections;
+
+	@Nonnull
+	@SuppressWarnings("null")
+	public static synchronized Reflections getReflections() {
+		if (reflections == null)
+			reflections = new Reflections(ROOT_PACKAGE);
+		return reflections;
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	public static Stream<Class<?>> getSubtypes(@Nonnull Class<?> supertype, @Nonnull Class<?> packageAnchor) {
+		var packagePrefix = packageAnchor.getPackageName() + ".";
+
+		Collection<Class<?>> classes = readIndex(supertype);
+		if (classes == null)
+			classes = getReflections().get(SubTypes.of(supertype).asClass());
+
+		return classes.stream()
+			.filter(c -> c.getName().startsWith(packagePrefix))
+			.filter(c -> !isAbstract(c.getModifiers()))
+			.filter(c -> !isInterface(c.getModifiers()));
+	}
+
+	// returns null if any classpath root containing the root package lacks an index for this supertype (eg. when
+	// it was built without annotation processing), since its classes would otherwise be silently left out
+	// incremental builds keep the index complete, since IndexProcessor merges it with the previously generated one
+	@Nullable
+	private static Collection<Class<?>> readIndex(@Nonnull Class<?> supertype) {
+		var loader = ReflectionUtils.class.getClassLoader();
+		try {
+			var indexPath = INDEX_PATH + supertype.getName();
+			var indices = Collections.list(loader.getResources(indexPath));
+
+			var unindexed = new ArrayList<>(getRoots(loader, ROOT_PACKAGE));
+			unindexed.removeAll(getRoots(loader, PROCESSOR_PACKAGE)); // the processor doesn't index itself
+			indices.forEach(i -> unindexed.remove(getRoot(i, indexPath)));
+			if (!unindexed.isEmpty()) {
+				LOG.warn("No class index for {} in {}, falling back to classpath scanning", supertype.getSimpleName(),
+						 unindexed);
+				return null;
+			}
+
+			var classes = new LinkedHashSet<Class<?>>();
+			for (var index : indices) {
+				try (var is = index.openStream()) {
+					new String(is.readAllBytes(), UTF_8).lines().filter(l -> !l.isBlank()).forEach(name -> {
+						try {
+							classes.add(Class.forName(name, false, loader));
+						} catch (ClassNotFoundException | LinkageError e) {
+							LOG.warn("Couldn't load indexed class {}: {}", name, e.toString());
+						}
+					});
+				}
+			}
+			return classes;
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Nonnull
+	private static List<String> getRoots(@Nonnull ClassLoader loader, @Nonnull String path) throws IOException {
+		return Collections.list(loader.getResources(path)).stream().map(u -> getRoot(u, path)).toList();
+	}
+
+	@Nonnull
+	private static String getRoot(@Nonnull URL resource, @Nonnull String path) {
+		var url = resource.toString();
+		return url.endsWith(path) ? url.substring(0, url.length() - path.length()) : url;
+	}
 
 	@Nonnull
 	public static <T> Stream<T> scanClasspath(Class<? extends T> supertype, Class<?> packageAnchor) {
@@ -48,21 +128,15 @@ public class ReflectionUtils {
 	@SuppressWarnings({ "unchecked", "null" })
 	public static <T> Stream<T> scanClasspath(Class<? extends T> supertype, Class<?> packageAnchor,
 											  EFunction<Class<? extends T>, T, ReflectiveOperationException> instantizer) {
-		var reflections = new Reflections(packageAnchor.getPackageName());
-		return reflections.get(SubTypes.of(supertype).asClass())
-			.stream()
-			.filter(c -> !isAbstract(c.getModifiers()))
-			.filter(c -> !isInterface(c.getModifiers()))
-			.map(c -> {
-				try {
-					return instantizer.applyChecked((Class<? extends T>) c);
-				} catch (ReflectiveOperationException e) {
-					LOG.error("Failed to instantiate {}:", c.getCanonicalName());
-					LOG.error("", e);
-					return null;
-				}
-			})
-			.filter(Objects::nonNull);
+		return getSubtypes(supertype, packageAnchor).map(c -> {
+			try {
+				return instantizer.applyChecked((Class<? extends T>) c);
+			} catch (ReflectiveOperationException e) {
+				LOG.error("Failed to instantiate {}:", c.getCanonicalName());
+				LOG.error("", e);
+				return null;
+			}
+		}).filter(Objects::nonNull);
 	}
 
 	private ReflectionUtils() {}
@@ -18,6 +18,7 @@ package libot.util;
 import static java.lang.Math.log10;
 import static java.lang.System.getenv;
 import static java.util.stream.Collectors.toMap;
+import static org.slf4j.LoggerFactory.getLogger;
 
 import java.util.*;
 import java.util.concurrent.*;
@@ -27,8 +28,12 @@ import java.util.stream.Collector;
 
 import javax.annotation.*;
 
+import org.slf4j.Logger;
+
 public final class Utilities {
 
+	private static final Logger LOG = getLogger(Utilities.class);
+
 	public static <T, K, U> Collector<T, ?, HashMap<K, U>> toModifiableMap(Function<? super T, ? extends K> keyMapper,
 																		   Function<? super T, ? extends U> valueMapper) {
 		return toMap(keyMapper, valueMapper, (m1, m2) -> {
@@ -68,6 +73,28 @@ public final class Utilities {
 			return value;
 	}
 
+	/**
+	 * Reads an integer environment variable. Values that aren't integers or are out of
+	 * the given (inclusive) bounds are logged and replaced with the default.
+	 */
+	public static int getenvInt(@Nonnull String key, int defaultValue, int min, int max) {
+		var value = getenv(key);
+		if (value == null)
+			return defaultValue;
+
+		try {
+			int parsed = Integer.parseInt(value.trim());
+			if (parsed >= min && parsed <= max)
+				return parsed;
+		} catch (NumberFormatException e) {
+			// logged below
+		}
+
+		LOG.warn("Invalid {} ({}), must be an integer between {} and {}. Using {} instead", key, value, min, max,
+				 defaultValue);
+		return defaultValue;
+	}
+
 	public static <T> void ifNonNull(@Nullable T value, @Nonnull Consumer<T> consumer) {
 		if (value != null)
 			consumer.accept(value);
@@ -35,6 +35,9 @@ class ParameterListTest {
 	@Nonnull private static final MandatoryParameter NAM_FIRST = mandatory(NAMED, "n1", "");
 	@Nonnull private static final MandatoryParameter NAM_SECOND = mandatory(NAMED, "n2", "");
 	@Nonnull private static final MandatoryParameter NAM_THIRD = mandatory(NAMED, "n3", "");
+	@Nonnull private static final Parameter NAM_OPT = optional(NAMED, "no", "");
+	// shares its name (and thus its ordinal) with POS_FIRST, like parameters of different commands can
+	@Nonnull private static final Parameter NAM_COLLIDING = optional(NAMED, "p1", "");
 
 	@Test
 	void testEmptyOf() {
@@ -191,6 +194,75 @@ class ParameterListTest {
 		assertEquals("argu - -- ment", args.get(POS_FIRST).value());
 	}
 
+	@Test
+	void testQuotedTokens() {
+		var args = ParameterList.of(NAM_FIRST, POS_FIRST).parse("--n1 \"quoted argu\" ment");
+		assertEquals("\"quoted", args.get(NAM_FIRST).value());
+		assertEquals("argu\" ment", args.get(POS_FIRST).value());
+	}
+
+	@Test
+	void testEscapedTokens() {
+		var args = ParameterList.of(POS_FIRST, POS_SECOND).parse("ar\\ gu ment\\");
+		assertEquals("ar\\", args.get(POS_FIRST).value());
+		assertEquals("gu ment\\", args.get(POS_SECOND).value());
+	}
+
+	@Test
+	void testNamedValueLooksNamed() {
+		var args = ParameterList.of(NAM_FIRST, NAM_OPT).parse("--n1 --no");
+		assertEquals("--no", args.get(NAM_FIRST).value());
+		assertTrue(args.get(NAM_OPT).isEmpty());
+	}
+
+	@Test
+	void testNamedCaseInsensitive() {
+		var args = ParameterList.of(NAM_FIRST).parse("--N1 argument");
+		assertEquals("argument", args.get(NAM_FIRST).value());
+	}
+
+	@Test
+	void testNameCollision() {
+		var positional = ParameterList.of(POS_FIRST).parse("argument");
+		var named = ParameterList.of(NAM_COLLIDING, POS_SECOND).parse("--p1 argu ment");
+		assertEquals("argument", positional.get(POS_FIRST).value());
+		assertEquals("argu", named.get(NAM_COLLIDING).orElseThrow().value());
+		assertEquals("ment", named.get(POS_SECOND).value());
+		// parameters are equal by name, so either one can look the argument up
+		assertEquals("argument", positional.get(NAM_COLLIDING).orElseThrow().value());
+		assertEquals("argu", named.get(POS_FIRST).value());
+	}
+
+	@Test
+	void testAbsentParameter() {
+		var args = ParameterList.of(POS_FIRST).parse("argument");
+		assertTrue(args.get((Parameter) NAM_THIRD).isEmpty());
+		// created after the list, so its ordinal is out of the list's bounds
+		assertTrue(args.get(optional(NAMED, "absent")).isEmpty());
+	}
+
+	@Test
+	void testReentrantParse() {
+		var outer = ParameterList.of(NAM_FIRST, POS_FIRST);
+		var inner = ParameterList.of(POS_FIRST, POS_SECOND, POS_THIRD);
+		var outerArgs = outer.parse("--n1 outer argu ment");
+		var innerArgs = inner.parse(outerArgs.get(POS_FIRST).value() + " inner");
+		assertEquals("outer", outerArgs.get(NAM_FIRST).value());
+		assertEquals("argu ment", outerArgs.get(POS_FIRST).value());
+		assertEquals("argu", innerArgs.get(POS_FIRST).value());
+		assertEquals("ment", innerArgs.get(POS_SECOND).value());
+		assertEquals("inner", innerArgs.get(POS_THIRD).value());
+	}
+
+	@Test
+	void testParseAfterFailure() {
+		var params = ParameterList.of(NAM_FIRST, POS_FIRST);
+		assertThrows(UsageException.class, () -> params.parse("argu --invalid ment"));
+		var args = params.parse("--n1 argu ment");
+		assertEquals("argu", args.get(NAM_FIRST).value());
+		assertEquals("ment", args.get(POS_FIRST).value());
+	}
+
 	@Test
 	void testInvalidPositionalSplit() {
 		var params = ParameterList.of(NAM_FIRST, POS_FIRST);
@@ -0,0 +1,69 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.command;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static libot.core.Constants.*;
+import static libot.core.command.CommandCategory.ADMINISTRATIVE;
+import static net.dv8tion.jda.api.utils.FileUpload.fromData;
+import static net.dv8tion.jda.api.utils.MarkdownUtil.codeblock;
+
+import java.util.Locale;
+
+import de.vandermeer.asciitable.AsciiTable;
+import libot.core.command.*;
+import libot.core.entity.*;
+import libot.core.metrics.Traces;
+import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
+
+public class TracesCommand extends Command {
+
+	public TracesCommand() {
+		super(CommandMetadata.builder(ADMINISTRATIVE, "traces")
+			.description("""
+				Shows latency percentiles (in microseconds) of sampled command invocations, split into stages.
+
+				The sampled invocations are attached as a file."""));
+	}
+
+	@Override
+	@SuppressWarnings({ "null", "resource" })
+	public void execute(CommandContext c) {
+		AsciiTable t = new AsciiTable();
+		t.getRenderer().setCWC(TABLE_CWC);
+		t.getContext().setGrid(TABLE_GRID);
+		t.addRule();
+		t.addRow("STAGE", "N", "P50", "P90", "P99").setPaddingLeftRight(1);
+		t.addStrongRule();
+		for (var p : Traces.getPercentiles()) {
+			t.addRow(p.span().name().toLowerCase(Locale.ROOT), p.count(), NANOSECONDS.toMicros(p.p50()),
+					 NANOSECONDS.toMicros(p.p90()), NANOSECONDS.toMicros(p.p99()))
+				.setPaddingLeftRight(1);
+		}
+		t.addRule();
+
+		c.reply(new MessageCreateBuilder().setContent(codeblock("Command traces\n" + t.render()))
+			.addFiles(fromData(Traces.dump().getBytes(UTF_8), "traces.txt")));
+	}
+
+	@Override
+	public void startupCheck(EventContext ec) {
+		super.startupCheck(ec);
+		ec.requireSysadmin();
+	}
+
+}
@@ -65,8 +65,8 @@ public class DisableCommand extends Command {
 	private static void disableCategory(@Nonnull CommandContext c, @Nonnull Customization cust,
 										@Nonnull CommandCategory category) {
 		var disabled = c.getCommands()
-			.commands()
-			.filter(cmd -> category == cmd.getCategory())
+			.getCommands(category)
+			.stream()
 			.filter(cmd -> !(cmd instanceof EnableCommand))
 			.filter(cust::disable)
 			.map(Command::getName)
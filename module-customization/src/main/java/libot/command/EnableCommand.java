@@ -64,8 +64,8 @@ public class EnableCommand extends Command {
 	private static void enableCategory(@Nonnull CommandContext c, @Nonnull Customization cust,
 									   @Nonnull CommandCategory category) {
 		var enabled = c.getCommands()
-			.commands()
-			.filter(cmd -> category == cmd.getCategory())
+			.getCommands(category)
+			.stream()
 			.filter(cust::enable)
 			.map(Command::getName)
 			.toList();
@@ -59,7 +59,7 @@ public class AboutCommand extends Command {
 	}
 
 	private static void appendStatistics(@Nonnull CommandContext c, @Nonnull EmbedPrebuilder b) {
-		long playing = GlobalMusicManager.getManagers().values().stream().filter(MusicManager::isPlayingTrack).count();
+		long playing = GlobalMusicManager.getManagers().stream().filter(MusicManager::isPlayingTrack).count();
 		b.addFieldf("Statistics", """
 			Guild count: **%d**,
 			Total of **%d** commands launched,
@@ -15,7 +15,8 @@
  */
 package libot.command;
 
-import static java.util.regex.Pattern.compile;
+import static com.google.common.cache.CacheBuilder.newBuilder;
+import static java.util.stream.Collectors.joining;
 import static libot.command.AboutCommand.LINKS;
 import static libot.core.Constants.*;
 import static libot.core.argument.ParameterList.Parameter.optional;
@@ -23,20 +24,22 @@ import static libot.core.argument.ParameterList.Parameter.ParameterType.POSITION
 import static libot.core.command.CommandCategory.*;
 import static libot.core.listener.DeletionRequestListener.DELETION_REACTION;
 import static libot.module.ModuleLibotShared.sendUsage;
-import static net.dv8tion.jda.api.utils.MarkdownUtil.monospace;
-import static org.apache.commons.lang3.StringUtils.*;
 
+import java.time.Duration;
 import java.util.Random;
-import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
 
+import com.google.common.cache.Cache;
+
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import libot.core.argument.ArgumentList.Argument;
 import libot.core.argument.ParameterList.Parameter;
 import libot.core.command.*;
 import libot.core.entity.CommandContext;
 import libot.core.extension.EmbedPrebuilder;
+import libot.provider.ConfigurationProvider;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 
 public class HelpCommand extends Command {
 
@@ -48,9 +51,6 @@ public class HelpCommand extends Command {
 			To get detailed information about a command, use help along with the command's name as a parameter."""));
 	}
 
-	private static final int LIST_MAX_WIDTH = 70;
-	private static final Pattern HYPERLINK_REGEX = compile("\\[(.*?)\\]\\([^\\)]+\\)");
-
 	private static final String FORMAT_NONEXISTANT =
 		"`%s` does not (yet) exist! Please try again in approximately `%d` years!";
 	private static final String FORMAT_DESCRIPTION = """
@@ -64,37 +64,60 @@ public class HelpCommand extends Command {
 		c.arg(COMMAND).ifPresentOrElse(arg -> about(c, arg), () -> list(c));
 	}
 
+	private static record ManualKey(@Nonnull CommandManager commands, long configurationRevision,
+		@Nonnull String commandWithPrefix, @Nonnull String selfMention, @Nonnull String selfAvatar, boolean sysadmin) {}
+
+	// the manual only depends on the key, so it's only rendered once for each prefix/shred combination
+	private static final Cache<ManualKey, MessageEmbed> MANUALS =
+		newBuilder().maximumSize(1024).expireAfterAccess(Duration.ofHours(1)).build();
+
 	@SuppressWarnings("null")
 	private static void list(@Nonnull CommandContext c) {
+		var conf = c.getProvider(ConfigurationProvider.class);
+		var key = new ManualKey(c.getCommands(), conf.getRevision(), c.getCommandWithPrefix(), c.getSelfMention(),
+								c.getSelfAvatar(), c.isUserSysadmin());
+
+		var manual = MANUALS.getIfPresent(key);
+		if (manual == null) {
+			manual = buildManual(key, conf);
+			MANUALS.put(key, manual);
+		}
+
+		var e = manual;
+		c.direct(e).thenAcceptAsync(m -> c.react(ACCEPT_EMOJI)).exceptionally(t -> {
+			c.reply(e);
+			return null;
+		});
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	private static MessageEmbed buildManual(@Nonnull ManualKey key, @Nonnull ConfigurationProvider conf) {
 		var e = new EmbedPrebuilder("LiBot manual", LITHIUM);
-		e.setFooter("LiBot v" + VERSION, c.getSelfAvatar());
+		e.setFooter("LiBot v" + VERSION, key.selfAvatar());
 
-		int maxLength = c.getCommands().commands().map(Command::getName).mapToInt(String::length).max().orElse(0);
-		var b = new StringBuilder();
+		var commands = key.commands();
 		for (var category : CommandCategory.values()) {
-			if (category == ADMINISTRATIVE && !c.isUserSysadmin())
+			if (category == ADMINISTRATIVE && !key.sysadmin())
 				continue;
 
-			b.setLength(0);
-			c.getCommands().commands().filter(cmd -> cmd.getCategory() == category).forEach(cmd -> {
-				b.append(monospace(rightPad(cmd.getName(), maxLength)));
-
-				cmd.getDescription().map(desc -> {
-					return abbreviate(HYPERLINK_REGEX.matcher(desc.replace("\n", "")).replaceAll("$1"),
-									  LIST_MAX_WIDTH - maxLength);
-				}).ifPresent(b::append);
-
-				b.append("\n");
-			});
-			e.addField(category.toString(), b.toString(), false);
+			var categoryCommands = commands.getCommands(category);
+			String table;
+			if (categoryCommands.stream().noneMatch(conf::isDisabled))
+				table = commands.getHelpTable(category);
+			else
+				table = categoryCommands.stream()
+					.filter(cmd -> !conf.isDisabled(cmd))
+					.map(commands::getHelpLine)
+					.collect(joining());
+
+			// JDA rejects fields without a value, eg. for categories where every command is disabled
+			if (!table.isEmpty())
+				e.addField(category.toString(), table, false);
 		}
 
-		e.setDescriptionf(FORMAT_DESCRIPTION, c.getCommandWithPrefix(), c.getSelfMention());
-
-		c.direct(e).thenAcceptAsync(m -> c.react(ACCEPT_EMOJI)).exceptionally(t -> {
-			c.reply(e);
-			return null;
-		});
+		e.setDescriptionf(FORMAT_DESCRIPTION, key.commandWithPrefix(), key.selfMention());
+		return e.build();
 	}
 
 	@SuppressWarnings("null")
@@ -16,9 +16,7 @@
 package libot.command;
 
 import static java.lang.Integer.parseInt;
-import static java.lang.Math.min;
 import static java.util.Collections.emptyList;
-import static java.util.stream.Collectors.toCollection;
 import static libot.core.Constants.*;
 import static libot.module.music.GlobalMusicManager.*;
 import static libot.module.music.TrackScheduler.QUEUE_MAX_SIZE;
@@ -42,6 +40,7 @@ import libot.core.command.exception.CommandException;
 import libot.core.entity.CommandContext;
 import libot.core.extension.EmbedPrebuilder;
 import libot.module.music.GlobalMusicManager.MusicManager;
+import libot.module.music.TrackCache;
 import libot.util.MessageLock;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 
@@ -69,7 +68,7 @@ class MusicCommandUtils {
 
 		var manager = getMusicManager(vchannel);
 
-		if (am.getSendingHandler() == null)
+		if (am.getSendingHandler() != manager.getSendHandler()) // the previous manager may have been reaped
 			am.setSendingHandler(manager.getSendHandler());
 		playTrack(c, url, manager);
 	}
@@ -78,7 +77,7 @@ class MusicCommandUtils {
 	static void playTrack(@Nonnull CommandContext c, @Nonnull String url, @Nonnull MusicManager manager) {
 		var lock = new MessageLock<List<AudioTrack>>();
 
-		APM.loadItem(url, new AudioLoadResultHandlerImpl(c, lock, manager, url));
+		TrackCache.loadItem(url, new AudioLoadResultHandlerImpl(c, lock, manager, url));
 
 		var tracks = lock.receive();
 		if (tracks != null && !tracks.isEmpty())
@@ -90,7 +89,7 @@ class MusicCommandUtils {
 	static List<AudioTrack> youtubeSearch(@Nonnull String query) {
 		var lock = new MessageLock<List<AudioTrack>>();
 
-		APM.loadItem("ytsearch:" + query, new AudioLoadResultHandler() {
+		TrackCache.loadItem("ytsearch:" + query, new AudioLoadResultHandler() {
 
 			@Override
 			public void trackLoaded(AudioTrack track) {
@@ -233,14 +232,13 @@ class MusicCommandUtils {
 			var selected = playlist.getSelectedTrack();
 			if (selected == null)
 				selected = playlist.getTracks().get(0);
-			boolean started = this.manager.getPlayer().startTrack(selected, true);
-			int total = playlist.getTracks().size();
-			int added = min(QUEUE_MAX_SIZE - s.size(), total);
-			playlist.getTracks()
-				.stream()
-				.filter(t -> !started || !t.equals(playlist.getSelectedTrack()))
-				.limit((long) QUEUE_MAX_SIZE - s.size())
-				.collect(toCollection(s::getQueue));
+			boolean started = s.startTrack(selected, true);
+			var tracks = playlist.getTracks();
+			if (started)
+				tracks = tracks.stream().filter(t -> !t.equals(playlist.getSelectedTrack())).toList();
+			int total = tracks.size();
+			int added = s.getQueue().offerAll(tracks);
+			s.markChanged();
 
 			var e = new EmbedPrebuilder();
 			if (started) {
@@ -23,8 +23,7 @@ import static libot.core.argument.ParameterList.Parameter.ParameterType.POSITION
 import static libot.core.command.CommandCategory.MUSIC;
 import static libot.module.music.GlobalMusicManager.getMusicManager;
 import static net.dv8tion.jda.api.entities.MessageEmbed.DESCRIPTION_MAX_LENGTH;
-
-import java.util.*;
+import static org.apache.commons.lang3.StringUtils.abbreviate;
 
 import javax.annotation.Nonnull;
 
@@ -34,12 +33,15 @@ import libot.core.argument.ArgumentList.Argument;
 import libot.core.argument.ParameterList.Parameter;
 import libot.core.command.*;
 import libot.core.entity.CommandContext;
-import libot.module.music.GlobalMusicManager.MusicManager;
+import libot.module.music.TrackQueue;
 
 public class QueueCommand extends Command {
 
 	@Nonnull private static final Parameter PAGE = optional(POSITIONAL, "page");
 
+	private static final int PAGE_SIZE = 10;
+	private static final int ENTRY_MAX_LENGTH = 100;
+
 	public QueueCommand() {
 		super(CommandMetadata.builder(MUSIC, "queue")
 			.parameters(PAGE)
@@ -59,43 +61,44 @@ public class QueueCommand extends Command {
 			throw nothingIsPlaying(c);
 
 		int page = c.arg(PAGE).map(Argument::valueAsInt).orElse(1);
-		var pages = buildQueuePages(manager, current);
+		var queue = manager.getScheduler().getQueue();
+		int pages = Math.max((queue.size() + PAGE_SIZE - 1) / PAGE_SIZE, 1);
 
-		if (page > pages.size() || page < 1)
+		if (page > pages || page < 1)
 			throw c.error("Page index out of range", FAILURE);
 
 		String footer = null;
-		if (pages.size() > 1) {
-			footer = "Displaying page %d out of %d".formatted(page, pages.size());
+		if (pages > 1) {
+			footer = "Displaying page %d out of %d".formatted(page, pages);
 			if (c.arg(PAGE).isEmpty())
 				footer += format(" • run %s [page]", c.getCommandWithPrefix());
 		}
-		c.reply("Queue for " + c.getGuildName(), pages.get(page - 1).toString(), footer, LITHIUM);
+		c.reply("Queue for " + c.getGuildName(), buildQueuePage(queue, current, page), footer, LITHIUM);
 	}
 
 	@Nonnull
-	private static List<StringBuilder> buildQueuePages(@Nonnull MusicManager gmm, @Nonnull AudioTrack current) {
-		var list = new ArrayList<StringBuilder>();
+	private static String buildQueuePage(@Nonnull TrackQueue queue, @Nonnull AudioTrack current, int page) {
 		var b = new StringBuilder();
 
-		b.append(EMOJI_PLAY + " **[%s: %s](%s)**\n".formatted(current.getInfo().author, current.getInfo().title,
-															  current.getInfo().uri));
+		if (page == 1)
+			appendTrack(b, EMOJI_PLAY + " **", current, "**");
 
-		int i = 1;
-		for (var track : gmm.getScheduler().getQueue()) {
-			var info = "**#%d** [%s: %s](%s)\n".formatted(i, track.getInfo().author, track.getInfo().title,
-														  track.getInfo().uri);
-			if (b.length() + info.length() > DESCRIPTION_MAX_LENGTH) {
-				list.add(b);
-				b = new StringBuilder();
-			}
+		int i = (page - 1) * PAGE_SIZE + 1;
+		for (var track : queue.slice(i - 1, i - 1 + PAGE_SIZE))
+			appendTrack(b, "**#" + i++ + "** ", track, "");
 
-			b.append(info);
-			i++;
-		}
+		return b.toString();
+	}
+
+	private static void appendTrack(@Nonnull StringBuilder b, @Nonnull String prefix, @Nonnull AudioTrack track,
+									@Nonnull String suffix) {
+		var info = track.getInfo();
+		var name = abbreviate(info.author, ENTRY_MAX_LENGTH) + ": " + abbreviate(info.title, ENTRY_MAX_LENGTH);
+		var line = "%s[%s](%s)%s\n".formatted(prefix, name, info.uri, suffix);
+		if (b.length() + line.length() > DESCRIPTION_MAX_LENGTH)
+			line = prefix + name + suffix + "\n"; // leave out links that are too long to fit
 
-		list.add(b);
-		return list;
+		b.append(line);
 	}
 
 }
@@ -15,41 +15,78 @@
  */
 package libot.module.music;
 
+import static java.lang.System.nanoTime;
+import static libot.core.metrics.Metrics.counter;
+
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.*;
+import java.util.function.Consumer;
+
+import javax.annotation.*;
 
-import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
 
+import libot.core.metrics.Counter;
 import net.dv8tion.jda.api.audio.AudioSendHandler;
 
 /**
  * This is a wrapper around AudioPlayer which makes it behave as an AudioSendHandler
  * for JDA. As JDA calls canProvide before every call to provide20MsAudio(), we pull
  * the frame in canProvide() and use the frame we already pulled in
- * provide20MsAudio().<br>
+ * provide20MsAudio(). Each guild has a single handler, and frames are always written
+ * into the same direct buffer.<br>
  * Source: https://github.com/sedmelluq/lavaplayer/
  */
 public class AudioPlayerSendHandler implements AudioSendHandler {
 
-	private final AudioPlayer audioPlayer;
+	private static final Counter FRAMES =
+		counter("libot_music_frames_total", "Number of audio frames provided and missed while playing", "result");
+	private static final int FLUSH_INTERVAL = 50; // about a second worth of frames
+
+	private final TrackScheduler scheduler;
+	private final FrameCache.Recorder recorder = new FrameCache.Recorder();
 	private final ByteBuffer buffer;
 	private final MutableAudioFrame frame;
+	private volatile long lastPolled = nanoTime();
+	private final AtomicReference<Consumer<AudioTrack>> frameHook = new AtomicReference<>();
+
+	private final AtomicLong framesProvided = new AtomicLong();
+	private final AtomicLong framesMissed = new AtomicLong();
+	// only accessed by JDA's audio sending thread
+	private int unflushedProvided = 0;
+	private int unflushedMissed = 0;
 
 	/**
-	 * @param audioPlayer
-	 *            Audio player to wrap.
+	 * @param scheduler
+	 *            Scheduler whose current audio player to wrap.
 	 */
-	public AudioPlayerSendHandler(AudioPlayer audioPlayer) {
-		this.audioPlayer = audioPlayer;
-		this.buffer = ByteBuffer.allocate(1024);
+	public AudioPlayerSendHandler(TrackScheduler scheduler) {
+		this.scheduler = scheduler;
+		this.buffer = ByteBuffer.allocateDirect(1024);
 		this.frame = new MutableAudioFrame();
 		this.frame.setBuffer(this.buffer);
 	}
 
 	@Override
 	public boolean canProvide() {
+		this.lastPolled = nanoTime();
 		// returns true if audio was provided
-		return this.audioPlayer.provide(this.frame);
+		var player = this.scheduler.getPlayer();
+		boolean provided = player.provide(this.frame);
+		if (provided) {
+			this.unflushedProvided++;
+			this.recorder.record(player.getPlayingTrack(), this.frame);
+			if (this.frameHook.get() != null)
+				runFrameHook(player.getPlayingTrack());
+		}
+		else if (player.getPlayingTrack() != null && !player.isPaused())
+			this.unflushedMissed++;
+
+		if (this.unflushedProvided + this.unflushedMissed >= FLUSH_INTERVAL)
+			flushStatistics();
+
+		return provided;
 	}
 
 	@Override
@@ -63,4 +100,64 @@ public class AudioPlayerSendHandler implements AudioSendHandler {
 	public boolean isOpus() {
 		return true;
 	}
+
+	/**
+	 * Sets a hook that's run once after the next frame this handler provides, replacing
+	 * the previous hook if it hasn't run yet. The hook receives the track that was
+	 * playing and runs on JDA's audio sending thread, so it must not block.
+	 *
+	 * @param hook
+	 *            the hook to run
+	 */
+	public void onNextFrame(@Nonnull Consumer<AudioTrack> hook) {
+		this.frameHook.set(hook);
+	}
+
+	private void runFrameHook(@Nullable AudioTrack track) {
+		var hook = this.frameHook.getAndSet(null);
+		if (hook != null)
+			hook.accept(track);
+	}
+
+	/**
+	 * @return the recorder that captures the frames this handler provides for the
+	 *         {@link FrameCache}
+	 */
+	public FrameCache.Recorder getRecorder() {
+		return this.recorder;
+	}
+
+	/**
+	 * @return the {@link System#nanoTime()} of the last time JDA polled this handler,
+	 *         which it only does while connected
+	 */
+	public long getLastPolled() {
+		return this.lastPolled;
+	}
+
+	/**
+	 * @return the number of frames this handler provided to JDA, updated about once a
+	 *         second
+	 */
+	public long getFramesProvided() {
+		return this.framesProvided.get();
+	}
+
+	/**
+	 * @return the number of times a track was playing but the player had no frame
+	 *         ready
+	 */
+	public long getFramesMissed() {
+		return this.framesMissed.get();
+	}
+
+	// statistics are only updated in batches so polling doesn't allocate
+	private void flushStatistics() {
+		this.framesProvided.addAndGet(this.unflushedProvided);
+		this.framesMissed.addAndGet(this.unflushedMissed);
+		FRAMES.inc(this.unflushedProvided, "provided");
+		FRAMES.inc(this.unflushedMissed, "missed");
+		this.unflushedProvided = 0;
+		this.unflushedMissed = 0;
+	}
 }
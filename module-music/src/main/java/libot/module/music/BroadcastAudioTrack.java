@@ -0,0 +1,58 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.module.music;
+
+import javax.annotation.Nonnull;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.*;
+
+/**
+ * A live stream track that plays from a {@link StreamBroadcast} shared with other
+ * guilds instead of fetching and decoding the stream itself.
+ */
+public class BroadcastAudioTrack extends WrapperAudioTrack {
+
+	long cursor; // accessed under the broadcast's lock
+
+	public BroadcastAudioTrack(@Nonnull AudioTrack source) {
+		super(source);
+	}
+
+	@Override
+	public void process(LocalAudioTrackExecutor executor) throws Exception {
+		var broadcast = StreamBroadcast.subscribe(getSource());
+		try {
+			this.cursor = broadcast.getJoinPosition();
+			var buffer = executor.getProcessingContext().frameBuffer;
+			executor.executeProcessingLoop(() -> {
+				// the frames are already encoded in the output format, so they're passed through as they are
+				AudioFrame frame;
+				while ((frame = broadcast.next(this)) != null)
+					buffer.consume(frame);
+			}, null);
+
+		} finally {
+			broadcast.unsubscribe();
+		}
+	}
+
+	@Override
+	protected AudioTrack makeShallowClone() {
+		return new BroadcastAudioTrack(getSource().makeClone());
+	}
+
+}
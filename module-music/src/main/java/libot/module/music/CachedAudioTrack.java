@@ -0,0 +1,62 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.module.music;
+
+import static java.util.Arrays.binarySearch;
+
+import javax.annotation.Nonnull;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.*;
+
+import libot.module.music.FrameCache.CachedFrames;
+
+/**
+ * A track that plays from frames stored in the {@link FrameCache} instead of fetching
+ * and decoding its source.
+ */
+public class CachedAudioTrack extends WrapperAudioTrack {
+
+	@Nonnull private final CachedFrames frames;
+	private int index; // only accessed by the playback thread
+
+	CachedAudioTrack(@Nonnull AudioTrack source, @Nonnull CachedFrames frames) {
+		super(source);
+		this.frames = frames;
+	}
+
+	@Override
+	public void process(LocalAudioTrackExecutor executor) throws Exception {
+		var buffer = executor.getProcessingContext().frameBuffer;
+		var data = this.frames.frames();
+		var timecodes = this.frames.timecodes();
+		executor.executeProcessingLoop(() -> {
+			// the frames are already encoded in the output format, so they're passed through as they are
+			for (; this.index < data.length; this.index++)
+				buffer.consume(new ImmutableAudioFrame(timecodes[this.index], data[this.index], 100,
+													   this.frames.format()));
+		}, position -> {
+			int found = binarySearch(timecodes, position);
+			this.index = found >= 0 ? found : Math.min(-found - 1, data.length);
+		});
+	}
+
+	@Override
+	protected AudioTrack makeShallowClone() {
+		return new CachedAudioTrack(getSource().makeClone(), this.frames);
+	}
+
+}
@@ -0,0 +1,204 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.module.music;
+
+import static com.google.common.cache.CacheBuilder.newBuilder;
+import static com.sedmelluq.discord.lavaplayer.track.AudioTrackEndReason.FINISHED;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static libot.core.Constants.ENV_MUSIC_FRAME_CACHE_SIZE;
+import static libot.core.metrics.Metrics.counter;
+import static libot.util.Utilities.getenvInt;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import javax.annotation.*;
+
+import com.google.common.cache.Cache;
+import com.sedmelluq.discord.lavaplayer.format.AudioDataFormat;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.player.event.AudioEventAdapter;
+import com.sedmelluq.discord.lavaplayer.track.*;
+import com.sedmelluq.discord.lavaplayer.track.playback.AudioFrame;
+
+import libot.core.metrics.Counter;
+
+/**
+ * Caches the encoded frames of short tracks that were played in full, so that they
+ * can be replayed (for example when looping) without fetching and decoding them
+ * again. Frames are captured by each guild's {@link Recorder} as they're sent, and
+ * replayed through {@link CachedAudioTrack}s. The cache is only enabled if
+ * {@link libot.core.Constants#ENV_MUSIC_FRAME_CACHE_SIZE} is set.
+ */
+public final class FrameCache {
+
+	private static final long MAX_BYTES =
+		getenvInt(ENV_MUSIC_FRAME_CACHE_SIZE, 0, 0, Integer.MAX_VALUE) * 1024L * 1024L;
+	private static final long MAX_TRACK_DURATION = MINUTES.toMillis(10);
+	private static final long MAX_FRAME_GAP = 40; // two frames, in milliseconds
+	private static final int FRAME_OVERHEAD = 24; // array header and timecode
+	private static final Duration EXPIRY = Duration.ofHours(1);
+
+	private static final Counter EVENTS =
+		counter("libot_music_frame_cache_total", "Number of tracks stored in and played from the frame cache", "event");
+
+	@SuppressWarnings("java:S6218")
+	static record CachedFrames(@Nonnull byte[][] frames, @Nonnull long[] timecodes, @Nonnull AudioDataFormat format,
+		int weight) {}
+
+	@Nullable private static final Cache<String, CachedFrames> FRAMES = MAX_BYTES <= 0 ? null
+		: newBuilder().maximumWeight(MAX_BYTES)
+			.<String, CachedFrames>weigher((k, v) -> v.weight())
+			.expireAfterAccess(EXPIRY)
+			.build();
+
+	@Nullable
+	private static String key(@Nonnull AudioTrack track) {
+		var source = track.getSourceManager();
+		return source == null ? null : source.getSourceName() + ':' + track.getIdentifier();
+	}
+
+	@Nullable
+	private static CachedFrames get(@Nonnull AudioTrack track) {
+		var key = key(track);
+		return FRAMES == null || key == null ? null : FRAMES.getIfPresent(key);
+	}
+
+	public static boolean contains(@Nonnull AudioTrack track) {
+		return get(track) != null;
+	}
+
+	/**
+	 * @return a track that plays from the cache if the given track's frames are
+	 *         cached, or the track itself otherwise
+	 */
+	@Nonnull
+	public static AudioTrack wrap(@Nonnull AudioTrack track) {
+		if (FRAMES == null || track instanceof WrapperAudioTrack)
+			return track;
+
+		var frames = get(track);
+		if (frames == null)
+			return track;
+
+		EVENTS.inc("hit");
+		var cached = new CachedAudioTrack(track, frames);
+		cached.setUserData(track.getUserData());
+		return cached;
+	}
+
+	private static boolean isCacheable(@Nonnull AudioTrack track) {
+		return FRAMES != null && !(track instanceof WrapperAudioTrack) && !track.getInfo().isStream
+			   && track.getDuration() <= MAX_TRACK_DURATION && key(track) != null && !contains(track);
+	}
+
+	/**
+	 * Records the frames a guild's players provide. It must be registered as a
+	 * listener before the {@link TrackScheduler}, so that it sees a track end before
+	 * the next one is started.
+	 */
+	public static class Recorder extends AudioEventAdapter {
+
+		private static final int INITIAL_CAPACITY = 1024;
+		private static final byte[][] NO_FRAMES = new byte[0][];
+		private static final long[] NO_TIMECODES = new long[0];
+
+		@Nullable private AudioTrack track;
+		@Nullable private AudioDataFormat format;
+		private boolean recording;
+		@Nonnull private byte[][] frames = NO_FRAMES;
+		@Nonnull private long[] timecodes = NO_TIMECODES;
+		private int count;
+		private long bytes;
+
+		/**
+		 * Records a frame that was provided for a track. Recording stops if the frames
+		 * aren't contiguous, for example after a seek.
+		 */
+		public synchronized void record(@Nullable AudioTrack playing, @Nonnull AudioFrame frame) {
+			if (FRAMES == null || playing == null)
+				return;
+
+			if (playing != this.track) {
+				reset();
+				this.track = playing;
+				if (!isCacheable(playing) || frame.getTimecode() > MAX_FRAME_GAP)
+					return;
+
+				this.recording = true;
+				this.format = frame.getFormat();
+				this.frames = new byte[INITIAL_CAPACITY][];
+				this.timecodes = new long[INITIAL_CAPACITY];
+			}
+
+			if (!this.recording)
+				return;
+
+			if (this.count > 0) {
+				long gap = frame.getTimecode() - this.timecodes[this.count - 1];
+				if (gap <= 0 || gap > MAX_FRAME_GAP) {
+					reset();
+					this.track = playing;
+					return;
+				}
+			}
+
+			if (this.count == this.frames.length) {
+				this.frames = Arrays.copyOf(this.frames, this.count * 2);
+				this.timecodes = Arrays.copyOf(this.timecodes, this.count * 2);
+			}
+
+			this.frames[this.count] = frame.getData();
+			this.timecodes[this.count] = frame.getTimecode();
+			this.count++;
+			this.bytes += frame.getDataLength() + FRAME_OVERHEAD;
+		}
+
+		@Override
+		@SuppressWarnings("null")
+		public synchronized void onTrackEnd(AudioPlayer player, AudioTrack track, AudioTrackEndReason endReason) {
+			// this also receives the standby player's events, eg. when a prefetch is cancelled, which mustn't
+			// discard the recording of the track that's playing
+			if (track != this.track)
+				return;
+
+			var recordedFormat = this.format;
+			if (this.recording && endReason == FINISHED && this.count > 0 && recordedFormat != null
+				&& FRAMES != null) {
+				var cached = new CachedFrames(Arrays.copyOf(this.frames, this.count),
+											  Arrays.copyOf(this.timecodes, this.count), recordedFormat,
+											  (int) this.bytes);
+				FRAMES.put(key(track), cached);
+				EVENTS.inc("store");
+			}
+			reset();
+		}
+
+		private void reset() {
+			this.track = null;
+			this.format = null;
+			this.recording = false;
+			this.frames = NO_FRAMES;
+			this.timecodes = NO_TIMECODES;
+			this.count = 0;
+			this.bytes = 0;
+		}
+
+	}
+
+	private FrameCache() {}
+
+}
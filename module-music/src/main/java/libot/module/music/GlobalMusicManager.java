@@ -17,14 +17,24 @@ package libot.module.music;
 
 import static com.sedmelluq.discord.lavaplayer.container.MediaContainerRegistry.DEFAULT_REGISTRY;
 import static dev.lavalink.youtube.YoutubeAudioSourceManager.DEFAULT_CLIENTS;
-import static java.lang.System.getenv;
+import static java.lang.System.*;
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.*;
 import static libot.core.Constants.*;
+import static libot.core.metrics.Metrics.*;
+import static libot.util.Utilities.getenvInt;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Collection;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.*;
 
-import org.eclipse.collections.api.factory.primitive.LongObjectMaps;
-import org.eclipse.collections.api.map.primitive.*;
+import org.slf4j.Logger;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sedmelluq.discord.lavaplayer.player.*;
 import com.sedmelluq.discord.lavaplayer.source.bandcamp.BandcampAudioSourceManager;
 import com.sedmelluq.discord.lavaplayer.source.beam.BeamAudioSourceManager;
@@ -36,6 +46,7 @@ import com.sedmelluq.discord.lavaplayer.source.vimeo.VimeoAudioSourceManager;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 
 import dev.lavalink.youtube.*;
+import libot.core.metrics.Counter;
 import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
 
@@ -43,23 +54,44 @@ public class GlobalMusicManager {
 
 	public static class MusicManager {
 
-		@Nonnull private final AudioPlayer player;
+		private static final long REAPED = Long.MIN_VALUE;
+
 		@Nonnull private final TrackScheduler scheduler;
+		@Nonnull private final AudioPlayerSendHandler sendHandler;
 		private final long channelId;
 		@Nonnull private final ChannelType channelType;
+		@Nonnull private final AtomicLong lastUsed = new AtomicLong(nanoTime());
 
 		@SuppressWarnings("null")
 		public MusicManager(@Nonnull AudioPlayerManager manager, @Nonnull AudioChannelUnion channel) {
-			this.player = manager.createPlayer();
-			this.scheduler = new TrackScheduler(this.player);
-			this.player.addListener(this.scheduler);
+			var player = manager.createPlayer();
+			var standby = manager.createPlayer();
+			this.scheduler = new TrackScheduler(player, standby);
+			this.sendHandler = new AudioPlayerSendHandler(this.scheduler);
+			// the recorder must see a track end before the scheduler starts the next one
+			player.addListener(this.sendHandler.getRecorder());
+			player.addListener(this.scheduler);
+			standby.addListener(this.sendHandler.getRecorder());
+			standby.addListener(this.scheduler);
 			this.channelId = channel.getIdLong();
 			this.channelType = channel.getType();
 		}
 
+		// returns false if the manager has already been reaped
+		private boolean touch() {
+			return this.lastUsed.getAndUpdate(t -> t == REAPED ? REAPED : nanoTime()) != REAPED;
+		}
+
+		// marks the manager as reaped if it hasn't been used, played or polled by JDA in the timeout
+		private boolean reapIfIdle(long now, long timeout) {
+			long used = this.lastUsed.get();
+			return used != REAPED && !isPlayingTrack() && now - used > timeout
+				   && now - this.sendHandler.getLastPolled() > timeout && this.lastUsed.compareAndSet(used, REAPED);
+		}
+
 		@Nonnull
 		public AudioPlayer getPlayer() {
-			return this.player;
+			return this.scheduler.getPlayer();
 		}
 
 		@Nonnull
@@ -78,7 +110,7 @@ public class GlobalMusicManager {
 
 		@Nonnull
 		public AudioPlayerSendHandler getSendHandler() {
-			return new AudioPlayerSendHandler(this.player);
+			return this.sendHandler;
 		}
 
 		@Nullable
@@ -92,8 +124,19 @@ public class GlobalMusicManager {
 
 	}
 
-	private static final MutableLongObjectMap<MusicManager> MANAGERS =
-		LongObjectMaps.mutable.<MusicManager>empty().asSynchronized();
+	private static final Logger LOG = getLogger(GlobalMusicManager.class);
+
+	private static final long IDLE_TIMEOUT =
+		MINUTES.toNanos(getenvInt(ENV_MUSIC_IDLE_TIMEOUT, 10, 1, Integer.MAX_VALUE));
+	private static final long REAP_INTERVAL = MINUTES.toMillis(1);
+	private static final long PREFETCH_INTERVAL = SECONDS.toMillis(1);
+
+	private static final Counter REAPED_MANAGERS =
+		counter("libot_music_players_reaped_total", "Number of idle guild music players that were destroyed");
+
+	private static final ConcurrentMap<Long, MusicManager> MANAGERS = new ConcurrentHashMap<>();
+	private static final ScheduledExecutorService MAINTENANCE = newSingleThreadScheduledExecutor(
+		new ThreadFactoryBuilder().setNameFormat("music-maintenance").setDaemon(true).build());
 	public static final AudioPlayerManager APM;
 	static {
 		APM = new DefaultAudioPlayerManager();
@@ -106,29 +149,70 @@ public class GlobalMusicManager {
 		APM.registerSourceManager(new BeamAudioSourceManager());
 		APM.registerSourceManager(new GetyarnAudioSourceManager());
 		APM.registerSourceManager(new HttpAudioSourceManager(DEFAULT_REGISTRY));
+
+		gauge("libot_music_players", "Number of guild music players").register(MANAGERS::size);
+		MAINTENANCE.scheduleWithFixedDelay(() -> {
+			try {
+				reapIdle();
+			} catch (Exception e) {
+				LOG.error("Failed to reap idle music players", e);
+			}
+		}, REAP_INTERVAL, REAP_INTERVAL, MILLISECONDS);
+		MAINTENANCE.scheduleWithFixedDelay(() -> {
+			for (var manager : MANAGERS.values()) {
+				try {
+					manager.scheduler.prefetchIfEnding();
+				} catch (Exception e) {
+					LOG.error("Failed to prefetch the next track", e);
+				}
+			}
+		}, PREFETCH_INTERVAL, PREFETCH_INTERVAL, MILLISECONDS);
 	}
 
 	@Nonnull
 	@SuppressWarnings("null")
-	public static LongObjectMap<MusicManager> getManagers() {
-		return MANAGERS;
+	public static Collection<MusicManager> getManagers() {
+		return unmodifiableCollection(MANAGERS.values());
 	}
 
 	@Nonnull
 	@SuppressWarnings("null")
-	public static synchronized MusicManager getMusicManager(@Nonnull AudioChannelUnion ac) {
-		return MANAGERS.getIfAbsentPut(ac.getGuild().getIdLong(), () -> new MusicManager(APM, ac));
+	public static MusicManager getMusicManager(@Nonnull AudioChannelUnion ac) {
+		long guildId = ac.getGuild().getIdLong();
+		while (true) {
+			var manager = MANAGERS.get(guildId);
+			if (manager == null)
+				manager = MANAGERS.computeIfAbsent(guildId, id -> new MusicManager(APM, ac));
+
+			if (manager.touch())
+				return manager;
+
+			MANAGERS.remove(guildId, manager); // raced with the reaper, which removes it anyways
+		}
 	}
 
 	@Nullable
 	public static MusicManager getMusicManager(long guildId) {
-		return MANAGERS.get(guildId);
+		var manager = MANAGERS.get(guildId);
+		return manager != null && manager.touch() ? manager : null;
+	}
+
+	private static void reapIdle() {
+		long now = nanoTime();
+		for (var entry : MANAGERS.entrySet()) {
+			var manager = entry.getValue();
+			if (manager.reapIfIdle(now, IDLE_TIMEOUT)) {
+				MANAGERS.remove(entry.getKey(), manager);
+				manager.scheduler.destroy();
+				REAPED_MANAGERS.inc();
+			}
+		}
 	}
 
 	public static void stopPlayback(long guildId) {
 		MusicManager gmm;
 		if ((gmm = MANAGERS.get(guildId)) != null) {
-			gmm.player.stopTrack();
+			gmm.getPlayer().stopTrack();
 			gmm.scheduler.clear();
 		}
 	}
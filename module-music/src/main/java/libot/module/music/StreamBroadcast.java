@@ -0,0 +1,191 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.module.music;
+
+import static java.lang.System.getenv;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static libot.core.Constants.ENV_MUSIC_BROADCAST;
+import static libot.core.metrics.Metrics.gauge;
+import static libot.module.music.GlobalMusicManager.APM;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Map;
+import java.util.concurrent.*;
+
+import javax.annotation.*;
+
+import org.slf4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.source.http.HttpAudioSourceManager;
+import com.sedmelluq.discord.lavaplayer.source.twitch.TwitchStreamAudioSourceManager;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.*;
+
+/**
+ * A live stream that's fetched and encoded once, and shared between all guilds that
+ * play it. Guilds play it through {@link BroadcastAudioTrack}s, which copy the
+ * broadcast's Opus frames into their own players. Broadcasting is only enabled if
+ * {@link libot.core.Constants#ENV_MUSIC_BROADCAST} is set.
+ */
+public class StreamBroadcast {
+
+	private static final Logger LOG = getLogger(StreamBroadcast.class);
+
+	private static final boolean ENABLED = getenv(ENV_MUSIC_BROADCAST) != null;
+	private static final int HISTORY = 64; // about 1.3 seconds of frames
+	private static final int JOIN_BACKLOG = 25; // new subscribers start this many frames behind
+
+	private static final Map<String, StreamBroadcast> BROADCASTS = new ConcurrentHashMap<>();
+	private static final ExecutorService PUMPS =
+		newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("music-broadcast-%d").setDaemon(true).build());
+	static {
+		gauge("libot_music_broadcasts", "Number of live streams shared between guilds").register(BROADCASTS::size);
+	}
+
+	@Nonnull private final String key;
+	@Nonnull private final AudioPlayer player;
+	@Nonnull private final AudioFrame[] frames = new AudioFrame[HISTORY];
+	private long sequence = 0;
+	private int subscribers = 0;
+	private boolean ended = false;
+	@Nullable private Future<?> pump;
+
+	private StreamBroadcast(@Nonnull String key) {
+		this.key = key;
+		this.player = APM.createPlayer();
+	}
+
+	/**
+	 * @return a track that plays the given track through a shared broadcast if it's a
+	 *         live stream that can be broadcast, or the track itself otherwise
+	 */
+	@Nonnull
+	public static AudioTrack wrap(@Nonnull AudioTrack track) {
+		if (!ENABLED || track instanceof WrapperAudioTrack || !track.getInfo().isStream)
+			return track;
+
+		var source = track.getSourceManager();
+		if (source instanceof TwitchStreamAudioSourceManager || source instanceof HttpAudioSourceManager)
+			return new BroadcastAudioTrack(track);
+		else
+			return track;
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	static StreamBroadcast subscribe(@Nonnull AudioTrack source) {
+		var key = source.getInfo().uri;
+		return BROADCASTS.compute(key, (k, broadcast) -> {
+			if (broadcast == null || !broadcast.tryAcquire()) {
+				broadcast = new StreamBroadcast(k);
+				broadcast.tryAcquire();
+				broadcast.start(source.makeClone());
+			}
+			return broadcast;
+		});
+	}
+
+	private synchronized boolean tryAcquire() {
+		if (this.ended)
+			return false;
+
+		this.subscribers++;
+		return true;
+	}
+
+	void unsubscribe() {
+		synchronized (this) {
+			if (--this.subscribers > 0)
+				return;
+			this.ended = true;
+		}
+		close();
+	}
+
+	private void start(@Nonnull AudioTrack source) {
+		this.player.startTrack(source, false);
+		this.pump = PUMPS.submit(() -> {
+			try {
+				while (!Thread.interrupted() && this.player.getPlayingTrack() != null) {
+					try {
+						var frame = this.player.provide(1, SECONDS);
+						if (frame != null)
+							publish(frame);
+					} catch (TimeoutException e) {
+						// the stream is buffering
+					}
+				}
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+
+			} catch (Exception e) {
+				LOG.warn("Broadcast of {} failed", this.key, e);
+
+			} finally {
+				synchronized (this) {
+					this.ended = true;
+					notifyAll();
+				}
+				close();
+			}
+		});
+	}
+
+	private synchronized void publish(@Nonnull AudioFrame frame) {
+		// frames may be reused by the buffer, so they're copied before being shared
+		this.frames[(int) (this.sequence % HISTORY)] =
+			new ImmutableAudioFrame(frame.getTimecode(), frame.getData(), frame.getVolume(), frame.getFormat());
+		this.sequence++;
+		notifyAll();
+	}
+
+	synchronized long getJoinPosition() {
+		return Math.max(this.sequence - JOIN_BACKLOG, 0);
+	}
+
+	/**
+	 * Waits for the next frame after the subscriber's cursor and advances it. Cursors
+	 * that fall too far behind skip to the newest frame.
+	 *
+	 * @return the frame, or null if the broadcast ended
+	 */
+	@Nullable
+	synchronized AudioFrame next(@Nonnull BroadcastAudioTrack subscriber) throws InterruptedException {
+		while (subscriber.cursor >= this.sequence && !this.ended)
+			wait();
+
+		if (subscriber.cursor >= this.sequence)
+			return null;
+
+		if (this.sequence - subscriber.cursor > HISTORY)
+			subscriber.cursor = this.sequence - 1;
+
+		return this.frames[(int) (subscriber.cursor++ % HISTORY)];
+	}
+
+	private void close() {
+		BROADCASTS.remove(this.key, this);
+		var future = this.pump;
+		if (future != null)
+			future.cancel(true);
+		this.player.destroy();
+	}
+
+}
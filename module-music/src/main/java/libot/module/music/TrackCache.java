@@ -0,0 +1,126 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.module.music;
+
+import static com.google.common.cache.CacheBuilder.newBuilder;
+import static libot.core.metrics.Metrics.counter;
+import static libot.module.music.GlobalMusicManager.APM;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.annotation.*;
+
+import com.google.common.cache.Cache;
+import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.track.*;
+
+import libot.core.metrics.Counter;
+
+/**
+ * Caches the results of {@link GlobalMusicManager#APM}'s loadItem across all guilds.
+ * Cached tracks are handed out as clones, so they can be played without looking
+ * them up again. Live streams are handed out as broadcasts where possible (see
+ * {@link StreamBroadcast}).
+ */
+public final class TrackCache {
+
+	private static final long MAX_ITEMS = 10_000;
+	private static final Duration EXPIRY = Duration.ofMinutes(30);
+
+	private static final Counter LOADS =
+		counter("libot_music_track_loads_total", "Number of track loads, by whether they were cached", "result");
+
+	private static record CachedItem(@Nullable AudioTrack track, @Nullable AudioPlaylist playlist) {}
+
+	private static final CachedItem NO_MATCHES = new CachedItem(null, null);
+
+	@Nonnull private static final Cache<String, CachedItem> ITEMS =
+		newBuilder().maximumSize(MAX_ITEMS).expireAfterWrite(EXPIRY).build();
+
+	/**
+	 * Works like {@code APM.loadItem(identifier, handler)}, but answers from the cache
+	 * if the identifier has been resolved recently. In that case the handler is called
+	 * on the calling thread.
+	 */
+	public static void loadItem(@Nonnull String identifier, @Nonnull AudioLoadResultHandler handler) {
+		var cached = ITEMS.getIfPresent(identifier);
+		if (cached != null) {
+			LOADS.inc("hit");
+			deliver(cached, handler);
+			return;
+		}
+
+		LOADS.inc("miss");
+		APM.loadItem(identifier, new AudioLoadResultHandler() {
+
+			@Override
+			public void trackLoaded(AudioTrack track) {
+				ITEMS.put(identifier, new CachedItem(track.makeClone(), null));
+				handler.trackLoaded(StreamBroadcast.wrap(track));
+			}
+
+			@Override
+			public void playlistLoaded(AudioPlaylist playlist) {
+				ITEMS.put(identifier, new CachedItem(null, clone(playlist)));
+				if (playlist.isSearchResult()) {
+					// search results are usually played by their URL next
+					for (var track : playlist.getTracks())
+						ITEMS.put(track.getInfo().uri, new CachedItem(track.makeClone(), null));
+				}
+				handler.playlistLoaded(playlist);
+			}
+
+			@Override
+			public void noMatches() {
+				ITEMS.put(identifier, NO_MATCHES);
+				handler.noMatches();
+			}
+
+			@Override
+			public void loadFailed(FriendlyException exception) {
+				handler.loadFailed(exception); // failures are often temporary, so they aren't cached
+			}
+
+		});
+	}
+
+	@SuppressWarnings("null")
+	private static void deliver(@Nonnull CachedItem item, @Nonnull AudioLoadResultHandler handler) {
+		if (item.track() != null)
+			handler.trackLoaded(StreamBroadcast.wrap(item.track().makeClone()));
+		else if (item.playlist() != null)
+			handler.playlistLoaded(clone(item.playlist()));
+		else
+			handler.noMatches();
+	}
+
+	@Nonnull
+	@SuppressWarnings("null")
+	private static AudioPlaylist clone(@Nonnull AudioPlaylist playlist) {
+		List<AudioTrack> tracks = playlist.getTracks().stream().map(AudioTrack::makeClone).toList();
+		AudioTrack selected = null;
+		if (playlist.getSelectedTrack() != null) {
+			int index = playlist.getTracks().indexOf(playlist.getSelectedTrack());
+			selected = index == -1 ? playlist.getSelectedTrack().makeClone() : tracks.get(index);
+		}
+		return new BasicAudioPlaylist(playlist.getName(), tracks, selected, playlist.isSearchResult());
+	}
+
+	private TrackCache() {}
+
+}
@@ -0,0 +1,255 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.module.music;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+import javax.annotation.*;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+
+/**
+ * A bounded queue of tracks backed by a ring buffer. Besides the usual queue
+ * operations, it supports indexed access, skipping, removal at an index and an in
+ * place shuffle. The buffer grows as needed, up to the maximum size.
+ */
+public class TrackQueue extends AbstractQueue<AudioTrack> {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int maxSize;
+	@Nonnull private AudioTrack[] tracks;
+	private int head = 0;
+	private int size = 0;
+
+	public TrackQueue(int maxSize) {
+		this.maxSize = maxSize;
+		this.tracks = new AudioTrack[Math.min(INITIAL_CAPACITY, maxSize)];
+	}
+
+	private int slot(int index) {
+		int slot = this.head + index;
+		return slot < this.tracks.length ? slot : slot - this.tracks.length;
+	}
+
+	@Override
+	public synchronized boolean offer(@Nonnull AudioTrack track) {
+		if (this.size == this.maxSize)
+			return false;
+
+		if (this.size == this.tracks.length)
+			grow();
+
+		this.tracks[slot(this.size++)] = track;
+		return true;
+	}
+
+	/**
+	 * Adds as many of the tracks as fit into the queue.
+	 *
+	 * @return the number of tracks that were added
+	 */
+	public synchronized int offerAll(@Nonnull Collection<AudioTrack> tracks) {
+		int added = 0;
+		for (var track : tracks) {
+			if (!offer(track))
+				break;
+			added++;
+		}
+		return added;
+	}
+
+	private void grow() {
+		var grown = new AudioTrack[Math.min(this.tracks.length * 2, this.maxSize)];
+		for (int i = 0; i < this.size; i++)
+			grown[i] = this.tracks[slot(i)];
+		this.tracks = grown;
+		this.head = 0;
+	}
+
+	@Override
+	@Nullable
+	public synchronized AudioTrack poll() {
+		return skip(1);
+	}
+
+	/**
+	 * Removes the first n tracks and returns the last of them.
+	 */
+	@Nullable
+	public synchronized AudioTrack skip(int n) {
+		if (n < 1 || this.size == 0)
+			return null;
+
+		n = Math.min(n, this.size);
+		var track = this.tracks[slot(n - 1)];
+		for (int i = 0; i < n; i++)
+			this.tracks[slot(i)] = null; // let the skipped tracks be collected
+
+		this.head = slot(n);
+		this.size -= n;
+		return track;
+	}
+
+	@Override
+	@Nullable
+	public synchronized AudioTrack peek() {
+		return this.size == 0 ? null : this.tracks[this.head];
+	}
+
+	@Nonnull
+	public synchronized AudioTrack get(int index) {
+		Objects.checkIndex(index, this.size);
+		return this.tracks[slot(index)];
+	}
+
+	@Nonnull
+	public synchronized AudioTrack remove(int index) {
+		Objects.checkIndex(index, this.size);
+		var track = this.tracks[slot(index)];
+
+		// shift whichever side of the index is shorter
+		if (index < this.size / 2) {
+			for (int i = index; i > 0; i--)
+				this.tracks[slot(i)] = this.tracks[slot(i - 1)];
+			this.tracks[this.head] = null;
+			this.head = slot(1);
+
+		} else {
+			for (int i = index; i < this.size - 1; i++)
+				this.tracks[slot(i)] = this.tracks[slot(i + 1)];
+			this.tracks[slot(this.size - 1)] = null;
+		}
+
+		this.size--;
+		return track;
+	}
+
+	/**
+	 * Replaces the first occurrence of a track instance.
+	 *
+	 * @return whether the track was found
+	 */
+	public synchronized boolean replace(@Nonnull AudioTrack track, @Nonnull AudioTrack replacement) {
+		for (int i = 0; i < this.size; i++) {
+			if (this.tracks[slot(i)] == track) {
+				this.tracks[slot(i)] = replacement;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public synchronized boolean remove(Object o) {
+		for (int i = 0; i < this.size; i++) {
+			if (Objects.equals(this.tracks[slot(i)], o)) {
+				remove(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public synchronized boolean removeIf(@Nonnull Predicate<? super AudioTrack> filter) {
+		// compact the kept tracks towards the head
+		int kept = 0;
+		for (int i = 0; i < this.size; i++) {
+			var track = this.tracks[slot(i)];
+			if (!filter.test(track))
+				this.tracks[slot(kept++)] = track;
+		}
+
+		if (kept == this.size)
+			return false;
+
+		for (int i = kept; i < this.size; i++)
+			this.tracks[slot(i)] = null;
+		this.size = kept;
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(@Nonnull Collection<?> c) {
+		return removeIf(c::contains);
+	}
+
+	@Override
+	public boolean retainAll(@Nonnull Collection<?> c) {
+		return removeIf(t -> !c.contains(t));
+	}
+
+	/**
+	 * @return a copy of the tracks from index {@code from} (inclusive) to {@code to}
+	 *         (exclusive), clamped to the queue's size
+	 */
+	@Nonnull
+	public synchronized List<AudioTrack> slice(int from, int to) {
+		from = Math.max(from, 0);
+		to = Math.min(to, this.size);
+		var slice = new ArrayList<AudioTrack>(Math.max(to - from, 0));
+		for (int i = from; i < to; i++)
+			slice.add(this.tracks[slot(i)]);
+		return slice;
+	}
+
+	public synchronized void shuffle() {
+		var random = ThreadLocalRandom.current();
+		for (int i = this.size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int a = slot(i);
+			int b = slot(j);
+			var track = this.tracks[a];
+			this.tracks[a] = this.tracks[b];
+			this.tracks[b] = track;
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		Arrays.fill(this.tracks, null);
+		this.head = 0;
+		this.size = 0;
+	}
+
+	@Override
+	public synchronized int size() {
+		return this.size;
+	}
+
+	public synchronized int remainingCapacity() {
+		return this.maxSize - this.size;
+	}
+
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * @return a read-only iterator over a snapshot of the queue. Use
+	 *         {@link #remove(int)} or {@link #removeIf(Predicate)} to remove tracks.
+	 */
+	@Override
+	@Nonnull
+	@SuppressWarnings("null")
+	public Iterator<AudioTrack> iterator() {
+		return Collections.unmodifiableList(slice(0, Integer.MAX_VALUE)).iterator();
+	}
+
+}
@@ -15,9 +15,12 @@
  */
 package libot.module.music;
 
-import java.util.*;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.atomic.AtomicInteger;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static libot.core.Constants.*;
+import static libot.util.Utilities.getenvInt;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.*;
 import java.util.function.*;
 
 import javax.annotation.*;
@@ -32,15 +35,28 @@ import com.sedmelluq.discord.lavaplayer.track.*;
 
 /**
  * This class schedules tracks for the audio player. It contains the queue of tracks.
+ * Shortly before a track ends, the next track in the queue is started on a paused
+ * standby player so that it's already buffered, and the players are swapped once the
+ * track ends.
  */
 public class TrackScheduler extends AudioEventAdapter {
 
-	public static final int QUEUE_MAX_SIZE = 200;
+	public static final int QUEUE_MAX_SIZE = getenvInt(ENV_MUSIC_QUEUE_MAX_SIZE, 1000, 1, 100_000);
+
+	private static final long PREFETCH_LEAD = SECONDS.toMillis(10);
+	private static final Semaphore PREFETCH_PERMITS =
+		new Semaphore(getenvInt(ENV_MUSIC_PREFETCH_LIMIT, 32, 0, Integer.MAX_VALUE));
 
-	@Nonnull private final AudioPlayer player;
-	@Nonnull private Queue<AudioTrack> queue;
-	private boolean loop;
+	@Nonnull private volatile AudioPlayer player;
+	@Nonnull private volatile AudioPlayer standby;
+	// prefetches are started, swapped in and cancelled from the maintenance thread, lavaplayer's threads and
+	// command threads, so that's only done while holding this scheduler's lock. lavaplayer dispatches events while
+	// holding a player's lock, so the active player is never started or stopped while holding this one
+	private final AtomicReference<AudioTrack> prefetched = new AtomicReference<>();
+	@Nonnull private final TrackQueue queue;
+	private volatile boolean loop;
 	private final transient AtomicInteger counter = new AtomicInteger();
+	private final transient AtomicBoolean changed = new AtomicBoolean();
 	private final transient MutableIntObjectMap<Consumer<FriendlyException>> exceptionListeners =
 		IntObjectMaps.mutable.<Consumer<FriendlyException>>empty().asSynchronized();
 	private final transient MutableIntObjectMap<Supplier<Consumer<FriendlyException>>> playListeners =
@@ -49,10 +65,15 @@ public class TrackScheduler extends AudioEventAdapter {
 	/**
 	 * @param player
 	 *            The audio player this scheduler uses
+	 * @param standby
+	 *            The audio player used to prefetch the next track, which is swapped
+	 *            with the main player when the track starts playing. This scheduler must
+	 *            be registered as a listener of both.
 	 */
-	public TrackScheduler(@Nonnull AudioPlayer player) {
+	public TrackScheduler(@Nonnull AudioPlayer player, @Nonnull AudioPlayer standby) {
 		this.player = player;
-		this.queue = new ArrayBlockingQueue<>(QUEUE_MAX_SIZE);
+		this.standby = standby;
+		this.queue = new TrackQueue(QUEUE_MAX_SIZE);
 		this.loop = false;
 
 	}
@@ -73,13 +94,15 @@ public class TrackScheduler extends AudioEventAdapter {
 		track.setUserData(ticket);
 		this.playListeners.put(ticket, playCallback);
 		// this must be set **before** startTrack to avoid a race condition
-		if (!this.player.startTrack(track, true)) {
+		if (!startTrack(this.player, track, true)) {
 			track.setUserData(null);
 			this.playListeners.remove(ticket);
-			if (this.queue.offer(track))
+			if (this.queue.offer(track)) {
+				markChanged();
 				queueCallback.run();
-			else
+			} else {
 				queueFullCallback.run();
+			}
 		}
 
 		if (resume)
@@ -93,24 +116,123 @@ public class TrackScheduler extends AudioEventAdapter {
 
 	@Nullable
 	public AudioTrack skipTrack(int n) {
-		for (int i = 0; i < n - 1; i++)
-			this.queue.poll();
+		AudioTrack track;
+		AudioPlayer previous;
+		synchronized (this) {
+			// the track is taken off the queue while holding the lock, so it can't be prefetched in the meantime
+			var prefetch = this.prefetched.get();
+			previous = n == 1 ? switchToPrefetched() : null;
+			if (previous == null) {
+				cancelPrefetch();
+				track = this.queue.skip(n);
+			} else {
+				track = prefetch;
+			}
+		}
 
-		AudioTrack track = this.queue.poll();
-		resumePlayer();
-		this.player.startTrack(track, false);
+		if (previous != null) {
+			previous.stopTrack();
+			this.player.setPaused(false);
+		} else {
+			resumePlayer();
+			startTrack(this.player, track, false);
+		}
+		markChanged();
 		return track;
 	}
 
+	/**
+	 * Starts a track on the current player, like {@link AudioPlayer#startTrack}. Tracks
+	 * in the {@link FrameCache} are played from it.
+	 */
+	public boolean startTrack(@Nullable AudioTrack track, boolean noInterrupt) {
+		return startTrack(this.player, track, noInterrupt);
+	}
+
+	private static boolean startTrack(@Nonnull AudioPlayer player, @Nullable AudioTrack track, boolean noInterrupt) {
+		return player.startTrack(track == null ? null : FrameCache.wrap(track), noInterrupt);
+	}
+
+	/**
+	 * Starts prefetching the next track in the queue if the playing track ends soon,
+	 * and there are prefetch permits left. Meant to be called periodically.
+	 */
+	public void prefetchIfEnding() {
+		var playing = this.player.getPlayingTrack();
+		if (playing == null || this.player.isPaused() || this.loop || this.prefetched.get() != null
+			|| playing.getInfo().isStream || playing.getDuration() - playing.getPosition() > PREFETCH_LEAD)
+			return;
+
+		// cached tracks start instantly, so they aren't prefetched
+		var next = this.queue.peek();
+		if (next == null || FrameCache.contains(next) || !PREFETCH_PERMITS.tryAcquire())
+			return;
+
+		synchronized (this) {
+			// the track may have been skipped, looping turned on, or the previous player not stopped yet since the
+			// checks above
+			if (this.loop || this.prefetched.get() != null || this.queue.peek() != next
+				|| this.standby.getPlayingTrack() != null) {
+				PREFETCH_PERMITS.release();
+				return;
+			}
+
+			this.prefetched.set(next);
+			this.standby.setPaused(true);
+			this.standby.startTrack(next, false);
+		}
+	}
+
+	// swaps in the standby player if it's holding the next track and returns the previous player, which the caller
+	// must stop after releasing the lock. otherwise cancels the prefetch
+	@Nullable
+	private synchronized AudioPlayer switchToPrefetched() {
+		var track = this.prefetched.get();
+		if (track == null)
+			return null;
+
+		var next = this.standby;
+		if (this.queue.peek() != track || next.getPlayingTrack() != track) {
+			cancelPrefetch();
+			return null;
+		}
+
+		this.prefetched.set(null);
+		PREFETCH_PERMITS.release();
+		this.queue.poll();
+		var previous = this.player;
+		this.player = next;
+		this.standby = previous;
+		return previous;
+	}
+
+	private synchronized void cancelPrefetch() {
+		var track = this.prefetched.getAndSet(null);
+		if (track != null) {
+			PREFETCH_PERMITS.release();
+			this.standby.stopTrack();
+			this.queue.replace(track, track.makeClone()); // a track instance can only be played once
+		}
+	}
+
 	public void shuffle() {
-		List<AudioTrack> queueList = new ArrayList<>(this.queue);
-		Collections.shuffle(queueList);
-		clear();
-		this.queue.addAll(queueList);
+		this.queue.shuffle();
+		markChanged();
 	}
 
 	public void clear() {
+		cancelPrefetch();
 		this.queue.clear();
+		markChanged();
+	}
+
+	/**
+	 * Stops and destroys both players.
+	 */
+	public void destroy() {
+		clear();
+		this.player.destroy();
+		this.standby.destroy();
 	}
 
 	public int size() {
@@ -126,13 +248,56 @@ public class TrackScheduler extends AudioEventAdapter {
 	}
 
 	public void setLoop(boolean loop) {
-		this.loop = loop;
+		synchronized (this) {
+			this.loop = loop;
+			if (loop)
+				cancelPrefetch();
+		}
+		markChanged();
+	}
+
+	/**
+	 * @return the player that's currently playing, which changes when a prefetched
+	 *         track starts
+	 */
+	@Nonnull
+	public AudioPlayer getPlayer() {
+		return this.player;
 	}
 
-	public Queue<AudioTrack> getQueue() {
+	@Nonnull
+	public TrackQueue getQueue() {
 		return this.queue;
 	}
 
+	/**
+	 * Marks the scheduler as changed, for example when tracks are added to the queue
+	 * returned by {@link #getQueue()} directly.
+	 */
+	public void markChanged() {
+		this.changed.set(true);
+	}
+
+	/**
+	 * @return whether the queue, the playing track or the player's state has changed
+	 *         since the last call
+	 */
+	public boolean pollChanged() {
+		return this.changed.getAndSet(false);
+	}
+
+	@Override
+	public void onPlayerPause(AudioPlayer player) {
+		if (player == this.player)
+			markChanged();
+	}
+
+	@Override
+	public void onPlayerResume(AudioPlayer player) {
+		if (player == this.player)
+			markChanged();
+	}
+
 	@Override
 	public void onTrackEnd(AudioPlayer player, AudioTrack track, AudioTrackEndReason endReason) {
 		Object data = track.getUserData();
@@ -142,11 +307,15 @@ public class TrackScheduler extends AudioEventAdapter {
 			this.exceptionListeners.remove(ticket);
 		}
 
+		if (player != this.player)
+			return; // the standby player, or the previous one after a prefetched track started
+
+		markChanged();
 		if (endReason.mayStartNext) {
 			if (isLoop()) {
 				AudioTrack current = track.makeClone();
 				current.setPosition(0);
-				player.startTrack(current, false);
+				startTrack(player, current, false);
 			} else {
 				nextTrack();
 			}
@@ -155,6 +324,10 @@ public class TrackScheduler extends AudioEventAdapter {
 
 	@Override
 	public void onTrackStart(AudioPlayer player, AudioTrack track) {
+		if (player != this.player)
+			return;
+
+		markChanged();
 		Object data = track.getUserData();
 		if (data != null) {
 			int ticket = (int) data;
@@ -167,6 +340,9 @@ public class TrackScheduler extends AudioEventAdapter {
 
 	@Override
 	public void onTrackException(AudioPlayer player, AudioTrack track, FriendlyException exception) {
+		if (player != this.player)
+			return;
+
 		Object data = track.getUserData();
 		if (data != null) {
 			int ticket = (int) data;
@@ -0,0 +1,53 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.module.music;
+
+import javax.annotation.Nonnull;
+
+import com.sedmelluq.discord.lavaplayer.source.AudioSourceManager;
+import com.sedmelluq.discord.lavaplayer.track.*;
+
+/**
+ * A track that plays another track's audio from somewhere other than its source.
+ */
+public abstract class WrapperAudioTrack extends BaseAudioTrack {
+
+	@Nonnull private final AudioTrack source;
+
+	protected WrapperAudioTrack(@Nonnull AudioTrack source) {
+		super(source.getInfo());
+		this.source = source;
+	}
+
+	@Nonnull
+	public AudioTrack getSource() {
+		return this.source;
+	}
+
+	@Override
+	public AudioSourceManager getSourceManager() {
+		return this.source.getSourceManager();
+	}
+
+	/**
+	 * @return the track a {@link WrapperAudioTrack} plays, or the track itself
+	 */
+	@Nonnull
+	public static AudioTrack unwrap(@Nonnull AudioTrack track) {
+		return track instanceof WrapperAudioTrack w ? w.getSource() : track;
+	}
+
+}
@@ -17,29 +17,35 @@ package libot.provider;
 
 import static java.lang.Thread.currentThread;
 import static java.util.Arrays.stream;
-import static java.util.concurrent.TimeUnit.MINUTES;
-import static java.util.stream.Collectors.toCollection;
+import static java.util.concurrent.CompletableFuture.*;
+import static java.util.concurrent.Executors.*;
+import static java.util.concurrent.TimeUnit.*;
+import static libot.core.Constants.ENV_MUSIC_RESTORE_PARALLELISM;
 import static libot.module.music.GlobalMusicManager.*;
-import static libot.module.music.TrackScheduler.QUEUE_MAX_SIZE;
 import static libot.util.DiscordUtils.NO_BOT;
+import static libot.util.Utilities.getenvInt;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.io.*;
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.*;
 import java.util.stream.Stream;
 
 import javax.annotation.*;
 
 import org.slf4j.Logger;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.reflect.TypeToken;
 import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.tools.io.*;
 import com.sedmelluq.discord.lavaplayer.track.*;
 
 import libot.core.data.DataManager;
 import libot.core.data.provider.SnowflakeProvider;
 import libot.core.shred.Shredder;
+import libot.module.music.*;
 import libot.module.music.GlobalMusicManager.MusicManager;
 import libot.provider.MusicRestoreProvider.MusicState;
 import libot.util.MessageLock;
@@ -49,10 +55,19 @@ import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
 public class MusicRestoreProvider extends SnowflakeProvider<MusicState> {
 
 	private static final Logger LOG = getLogger(MusicRestoreProvider.class);
+	private static final long CHECKPOINT_INTERVAL = MINUTES.toMillis(1);
+	private static final long POSITION_THRESHOLD = SECONDS.toMillis(30);
+	private static final int RESTORE_PARALLELISM = getenvInt(ENV_MUSIC_RESTORE_PARALLELISM, 8, 1, 256);
 
+	// encodedTracks holds base64 encoded tracks (see AudioPlayerManager#encodeTrack), with the URLs in tracks used
+	// as a fallback. It's null in states stored by older versions
 	@SuppressWarnings("java:S6218")
-	public static record MusicState(@Nonnull String[] tracks, boolean paused, long position, boolean loop,
-		@Nonnull ChannelType channelType) {}
+	public static record MusicState(@Nonnull String[] tracks, @Nullable String[] encodedTracks, boolean paused,
+		long position, boolean loop, @Nonnull ChannelType channelType) {}
+
+	@Nonnull private final ScheduledExecutorService checkpointer = newSingleThreadScheduledExecutor(
+		new ThreadFactoryBuilder().setNameFormat("music-checkpoint").setDaemon(true).build());
+	private volatile boolean restored = false;
 
 	public MusicRestoreProvider(@Nonnull Shredder shredder, @Nonnull DataManager dataManager) {
 		super(shredder, dataManager, new TypeToken<>() {}, "musicqueues");
@@ -69,7 +84,7 @@ public class MusicRestoreProvider extends SnowflakeProvider<MusicState> {
 			var manager = getMusicManager(ac);
 			stopPlayback(ac.getGuild().getIdLong());
 
-			if (am.getSendingHandler() == null)
+			if (am.getSendingHandler() != manager.getSendHandler()) // the previous manager may have been reaped
 				am.setSendingHandler(manager.getSendHandler());
 
 			if (!am.isConnected())
@@ -79,9 +94,11 @@ public class MusicRestoreProvider extends SnowflakeProvider<MusicState> {
 
 			int skip = playFirst(state, manager);
 			manager.getPlayer().setPaused(state.paused());
-			if (skip != -1)
-				resolveAudioTracks(state.tracks(), skip).limit((long) QUEUE_MAX_SIZE - manager.getScheduler().size())
-					.collect(toCollection(manager.getScheduler()::getQueue));
+			if (skip != -1) {
+				var queue = manager.getScheduler().getQueue();
+				restoreAudioTracks(state, skip).limit(queue.remainingCapacity()).forEach(queue::offer);
+				manager.getScheduler().markChanged();
+			}
 
 		} catch (InterruptedException e) {
 			currentThread().interrupt();
@@ -92,31 +109,28 @@ public class MusicRestoreProvider extends SnowflakeProvider<MusicState> {
 	}
 
 	@SuppressWarnings("null")
-	private static int playFirst(@Nonnull MusicState state, @Nonnull MusicManager manager) throws InterruptedException {
+	private static int playFirst(@Nonnull MusicState state, @Nonnull MusicManager manager) {
 		int i = 0;
 		if (manager.getPlayingTrack() == null) {
 			AudioTrack firstTrack = null;
-			while (firstTrack == null && i < state.tracks.length)
-				firstTrack = resolveAudioTrack(state.tracks[i]);
-			i++; // plus the one we just resolved
+			while (firstTrack == null && i < state.tracks().length)
+				firstTrack = restoreAudioTrack(state, i++);
 
 			if (firstTrack != null) {
+				var track = firstTrack;
+				boolean restorePosition = track.isSeekable() && i == 1;
 				manager.getPlayer().setPaused(false);
-				manager.getPlayer().playTrack(firstTrack);
-
-				if (firstTrack.isSeekable() && firstTrack.getInfo().uri.equals(state.tracks()[0])) {
-					// wait around for the first frame (for up to 5s). fixes a race condition in ogg
-					// position restore
-					int j = 500;
-					while (manager.getPlayer().provide() == null && j-- > 0) {
-						Thread.sleep(10);
-					}
-
-					if (j == -1)
-						LOG.warn("Could not get a frame for {}", firstTrack.getInfo().uri);
-
-					firstTrack.setPosition(state.position());
+				if (restorePosition) {
+					// the position is applied after the first frame is decoded rather than beforehand, which fixes
+					// a race condition in ogg position restore. the scheduler may play a cached wrapper of the track
+					manager.getSendHandler().onNextFrame(playing -> {
+						if (playing != null && WrapperAudioTrack.unwrap(playing) == track)
+							playing.setPosition(state.position());
+					});
 				}
+				manager.getScheduler().queueCallback(track, () -> {
+					return e -> LOG.warn("Couldn't restore playback of {}", track.getInfo().uri, e);
+				}, () -> {}, () -> {}, false);
 
 			} else {
 				return -1; // we can't resolve a single track
@@ -125,10 +139,49 @@ public class MusicRestoreProvider extends SnowflakeProvider<MusicState> {
 		return i;
 	}
 
+	@Nullable
+	private static AudioTrack restoreAudioTrack(@Nonnull MusicState state, int index) {
+		var track = decodeTrack(state, index);
+		if (track != null)
+			return track;
+		else
+			return resolveAudioTrack(state.tracks()[index]);
+	}
+
+	@Nullable
+	private static AudioTrack decodeTrack(@Nonnull MusicState state, int index) {
+		var encoded = state.encodedTracks();
+		if (encoded == null || index >= encoded.length || encoded[index] == null)
+			return null;
+
+		try {
+			var input = new MessageInput(new ByteArrayInputStream(Base64.getDecoder().decode(encoded[index])));
+			var holder = APM.decodeTrack(input);
+			return holder == null ? null : StreamBroadcast.wrap(holder.decodedTrack);
+
+		} catch (IOException | IllegalArgumentException e) {
+			LOG.warn("Couldn't decode a track, resolving {} instead", state.tracks()[index], e);
+			return null;
+		}
+	}
+
+	@Nullable
+	private static String encodeTrack(@Nonnull AudioTrack track) {
+		try {
+			var output = new ByteArrayOutputStream();
+			APM.encodeTrack(new MessageOutput(output), WrapperAudioTrack.unwrap(track));
+			return Base64.getEncoder().encodeToString(output.toByteArray());
+
+		} catch (IOException e) {
+			LOG.warn("Couldn't encode {}, only its URL will be stored", track.getInfo().uri, e);
+			return null;
+		}
+	}
+
 	@Nullable
 	private static AudioTrack resolveAudioTrack(@Nonnull String url) {
 		var lock = new MessageLock<AudioTrack>();
-		APM.loadItem(url, new AudioLoadResultHandler() {
+		TrackCache.loadItem(url, new AudioLoadResultHandler() {
 
 			@Override
 			public void trackLoaded(AudioTrack track) {
@@ -156,12 +209,23 @@ public class MusicRestoreProvider extends SnowflakeProvider<MusicState> {
 
 	@Nonnull
 	@SuppressWarnings("null")
-	private static Stream<AudioTrack> resolveAudioTracks(@Nonnull String[] urls, int skip) throws InterruptedException {
+	private static Stream<AudioTrack> restoreAudioTracks(@Nonnull MusicState state,
+														 int skip) throws InterruptedException {
+		var urls = state.tracks();
 		var tracks = new AudioTrack[urls.length];
-		var cdl = new CountDownLatch(urls.length - skip);
+		var unresolved = new ArrayList<Integer>();
 		for (int i = skip; i < urls.length; i++) {
-			int j = i; // lambda shenanigans
-			APM.loadItem(urls[i], new AudioLoadResultHandler() {
+			tracks[i] = decodeTrack(state, i);
+			if (tracks[i] == null)
+				unresolved.add(i);
+		}
+
+		if (unresolved.isEmpty())
+			return stream(tracks).filter(Objects::nonNull);
+
+		var cdl = new CountDownLatch(unresolved.size());
+		for (int j : unresolved) {
+			TrackCache.loadItem(urls[j], new AudioLoadResultHandler() {
 
 				@Override
 				public void trackLoaded(AudioTrack track) {
@@ -195,40 +259,128 @@ public class MusicRestoreProvider extends SnowflakeProvider<MusicState> {
 	@SuppressWarnings("null")
 	@Override
 	protected void onShredderReady() {
-		if (!this.data.isEmpty()) {
-			new Thread(() -> {
-				this.data.forEach(this::restorePlayback);
-				this.data.clear();
-				markDirty();
-				store();
-			}, "music-playback-restore").start();
+		if (this.data.isEmpty()) {
+			startCheckpointing();
+			return;
 		}
+
+		var threadFactory = new ThreadFactoryBuilder().setNameFormat("music-playback-restore-%d").build();
+		var executor = newFixedThreadPool(RESTORE_PARALLELISM, threadFactory);
+		var restorations = this.data.entrySet()
+			.stream()
+			.map(e -> runAsync(() -> restorePlayback(e.getKey(), e.getValue()), executor))
+			.toArray(CompletableFuture[]::new);
+
+		allOf(restorations).whenComplete((v, t) -> {
+			executor.shutdown();
+			if (t != null)
+				LOG.error("Failed to restore music playback", t);
+			LOG.info("Finished restoring music playback on {} channels", restorations.length);
+			// replaces the restored states with the current ones
+			startCheckpointing();
+			checkpoint(true);
+		});
 	}
 
-	@Override
-	public void shutdown() {
-		getManagers().forEachKeyValue((guildId, manager) -> {
-			var playing = manager.getPlayingTrack();
-			if (playing == null)
-				return;
+	private void startCheckpointing() {
+		this.restored = true;
+		this.checkpointer.scheduleWithFixedDelay(() -> {
+			try {
+				checkpoint(false);
+			} catch (Exception e) {
+				LOG.error("Failed to checkpoint music state", e);
+			}
+		}, CHECKPOINT_INTERVAL, CHECKPOINT_INTERVAL, MILLISECONDS);
+	}
 
-			var queue = new ArrayList<>(manager.getScheduler().getQueue());
-			int length = queue.size() + 1;
-			if (length == 0)
-				return;
+	// updates the saved state of guilds that have changed since the last checkpoint (or all of them if all is
+	// set), and only stores the data if any of them did
+	private synchronized void checkpoint(boolean all) {
+		boolean changed = false;
+		var channels = new HashSet<Long>();
+		for (var manager : List.copyOf(getManagers())) {
+			long channelId = manager.getChannelId();
+			channels.add(channelId);
+
+			boolean queueChanged = manager.getScheduler().pollChanged();
+			var saved = this.data.get(channelId);
+			MusicState state;
+			if (all || queueChanged || !isSameQueue(manager, saved))
+				state = captureState(manager);
+			else if (hasMoved(manager, saved))
+				state = withPosition(manager, saved); // the tracks didn't change, so they aren't encoded again
+			else
+				continue;
+
+			if (state != null) {
+				this.data.put(channelId, state);
+				changed = true;
+
+			} else if (this.data.remove(channelId) != null) {
+				changed = true;
+			}
+		}
 
-			var tracks = new String[length];
-			tracks[0] = playing.getInfo().uri;
-			for (int i = 0; i < queue.size(); i++)
-				tracks[i + 1] = queue.get(i).getInfo().uri;
+		// states that weren't restored yet don't have a manager
+		if (this.restored && this.data.keySet().retainAll(channels))
+			changed = true;
 
-			var state = new MusicState(tracks, manager.getPlayer().isPaused(), playing.getPosition(),
-									   manager.getScheduler().isLoop(), manager.getChannelType());
-			this.data.put(manager.getChannelId(), state);
+		if (changed) {
 			markDirty();
-		});
+			store();
+		}
+	}
+
+	private static boolean isSameQueue(@Nonnull MusicManager manager, @Nullable MusicState saved) {
+		var playing = manager.getPlayingTrack();
+		if (playing == null || saved == null)
+			return playing == null && saved == null;
+
+		return manager.getScheduler().size() + 1 == saved.tracks().length;
+	}
 
-		store();
+	private static boolean hasMoved(@Nonnull MusicManager manager, @Nullable MusicState saved) {
+		var playing = manager.getPlayingTrack();
+		return playing != null && saved != null
+			   && Math.abs(playing.getPosition() - saved.position()) >= POSITION_THRESHOLD;
+	}
+
+	@Nullable
+	private static MusicState withPosition(@Nonnull MusicManager manager, @Nonnull MusicState saved) {
+		var playing = manager.getPlayingTrack();
+		if (playing == null)
+			return null;
+
+		return new MusicState(saved.tracks(), saved.encodedTracks(), manager.getPlayer().isPaused(),
+							  playing.getPosition(), manager.getScheduler().isLoop(), saved.channelType());
+	}
+
+	@Nullable
+	private static MusicState captureState(@Nonnull MusicManager manager) {
+		var playing = manager.getPlayingTrack();
+		if (playing == null)
+			return null;
+
+		var queue = manager.getScheduler().getQueue().slice(0, Integer.MAX_VALUE);
+		int length = queue.size() + 1;
+
+		var tracks = new String[length];
+		var encodedTracks = new String[length];
+		tracks[0] = playing.getInfo().uri;
+		encodedTracks[0] = encodeTrack(playing);
+		for (int i = 0; i < queue.size(); i++) {
+			tracks[i + 1] = queue.get(i).getInfo().uri;
+			encodedTracks[i + 1] = encodeTrack(queue.get(i));
+		}
+
+		return new MusicState(tracks, encodedTracks, manager.getPlayer().isPaused(), playing.getPosition(),
+							  manager.getScheduler().isLoop(), manager.getChannelType());
+	}
+
+	@Override
+	public void shutdown() {
+		this.checkpointer.shutdownNow();
+		checkpoint(true);
 	}
 
 }
@@ -0,0 +1,201 @@
+//SPDX-License-Identifier: AGPL-3.0-only
+/*
+ * Copyright (C) 2017-2025 Marko Zajc
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Affero General Public License as published by the Free Software
+ * Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along
+ * with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package libot.module.music;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.Test;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+
+class TrackQueueTest {
+
+	@Nonnull
+	@SuppressWarnings("null")
+	private static AudioTrack track(int n) {
+		return (AudioTrack) Proxy.newProxyInstance(AudioTrack.class.getClassLoader(), new Class<?>[] {
+			AudioTrack.class
+		}, (proxy, method, args) -> switch (method.getName()) {
+			case "equals" -> proxy == args[0];
+			case "hashCode" -> n;
+			case "toString" -> "track" + n;
+			default -> throw new UnsupportedOperationException(method.getName());
+		});
+	}
+
+	@Nonnull
+	private static List<AudioTrack> tracks(int count) {
+		return IntStream.range(0, count).mapToObj(TrackQueueTest::track).toList();
+	}
+
+	@Nonnull
+	private static TrackQueue queueOf(int maxSize, @Nonnull List<AudioTrack> tracks) {
+		var queue = new TrackQueue(maxSize);
+		assertEquals(tracks.size(), queue.offerAll(tracks));
+		return queue;
+	}
+
+	@Test
+	void testFifo() {
+		var tracks = tracks(3);
+		var queue = queueOf(10, tracks);
+		assertEquals(tracks.get(0), queue.peek());
+		assertEquals(tracks.get(0), queue.poll());
+		assertEquals(tracks.get(1), queue.poll());
+		assertEquals(tracks.get(2), queue.poll());
+		assertNull(queue.poll());
+		assertNull(queue.peek());
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	void testCap() {
+		var tracks = tracks(5);
+		var queue = new TrackQueue(3);
+		assertEquals(3, queue.offerAll(tracks));
+		assertEquals(3, queue.size());
+		assertEquals(0, queue.remainingCapacity());
+		assertFalse(queue.offer(tracks.get(3)));
+		assertThrows(IllegalStateException.class, () -> queue.add(tracks.get(4)));
+
+		queue.poll();
+		assertEquals(1, queue.remainingCapacity());
+		assertTrue(queue.offer(tracks.get(3)));
+		assertEquals(tracks.subList(1, 4), queue.slice(0, 3));
+	}
+
+	@Test
+	void testWrapAround() {
+		var tracks = tracks(6);
+		var queue = queueOf(4, tracks.subList(0, 4));
+		queue.poll();
+		queue.poll();
+		assertTrue(queue.offer(tracks.get(4)));
+		assertTrue(queue.offer(tracks.get(5)));
+
+		assertEquals(tracks.subList(2, 6), queue.slice(0, 4));
+		for (int i = 0; i < 4; i++)
+			assertEquals(tracks.get(i + 2), queue.get(i));
+		assertThrows(IndexOutOfBoundsException.class, () -> queue.get(4));
+	}
+
+	@Test
+	void testGrowAfterHeadMoved() {
+		var tracks = tracks(40);
+		var queue = queueOf(100, tracks.subList(0, 16));
+		for (int i = 0; i < 5; i++)
+			queue.poll();
+		assertEquals(24, queue.offerAll(tracks.subList(16, 40)));
+		assertEquals(tracks.subList(5, 40), queue.slice(0, Integer.MAX_VALUE));
+	}
+
+	@Test
+	void testSkip() {
+		var tracks = tracks(5);
+		var queue = queueOf(10, tracks);
+		assertNull(queue.skip(0));
+		assertEquals(5, queue.size());
+
+		assertEquals(tracks.get(1), queue.skip(2));
+		assertEquals(tracks.subList(2, 5), queue.slice(0, 3));
+
+		assertEquals(tracks.get(4), queue.skip(10));
+		assertTrue(queue.isEmpty());
+		assertNull(queue.skip(1));
+	}
+
+	@Test
+	void testRemoveNearHead() {
+		var tracks = tracks(8);
+		var queue = queueOf(8, tracks.subList(0, 6));
+		queue.skip(3); // move the head so removal crosses the end of the buffer
+		queue.offerAll(tracks.subList(6, 8));
+
+		assertEquals(tracks.get(4), queue.remove(1));
+		assertEquals(List.of(tracks.get(3), tracks.get(5), tracks.get(6), tracks.get(7)),
+					 queue.slice(0, Integer.MAX_VALUE));
+		assertEquals(tracks.get(3), queue.remove(0));
+		assertEquals(tracks.get(5), queue.peek());
+	}
+
+	@Test
+	void testRemoveNearTail() {
+		var tracks = tracks(8);
+		var queue = queueOf(8, tracks.subList(0, 6));
+		queue.skip(3);
+		queue.offerAll(tracks.subList(6, 8));
+
+		assertEquals(tracks.get(6), queue.remove(3));
+		assertEquals(List.of(tracks.get(3), tracks.get(4), tracks.get(5), tracks.get(7)),
+					 queue.slice(0, Integer.MAX_VALUE));
+		assertEquals(tracks.get(7), queue.remove(3));
+		assertEquals(3, queue.size());
+		assertThrows(IndexOutOfBoundsException.class, () -> queue.remove(3));
+	}
+
+	@Test
+	void testSliceClamping() {
+		var tracks = tracks(5);
+		var queue = queueOf(10, tracks);
+		assertEquals(tracks.subList(0, 2), queue.slice(-5, 2));
+		assertEquals(tracks.subList(3, 5), queue.slice(3, 100));
+		assertEquals(List.of(), queue.slice(4, 2));
+		assertEquals(List.of(), queue.slice(7, 9));
+	}
+
+	@Test
+	void testShuffleKeepsTracks() {
+		var tracks = tracks(50);
+		var queue = queueOf(50, tracks);
+		queue.skip(10);
+		queue.offerAll(tracks.subList(0, 10));
+		queue.shuffle();
+		assertEquals(50, queue.size());
+		assertEquals(new HashSet<>(tracks), new HashSet<>(queue.slice(0, 50)));
+	}
+
+	@Test
+	void testRemoveFromCollectionMethods() {
+		var tracks = tracks(6);
+		var queue = queueOf(10, tracks);
+
+		assertTrue(queue.remove(tracks.get(2)));
+		assertFalse(queue.remove(tracks.get(2)));
+		assertTrue(queue.removeIf(t -> t == tracks.get(0) || t == tracks.get(5)));
+		assertEquals(List.of(tracks.get(1), tracks.get(3), tracks.get(4)), queue.slice(0, 10));
+
+		assertTrue(queue.retainAll(List.of(tracks.get(3))));
+		assertEquals(List.of(tracks.get(3)), queue.slice(0, 10));
+		assertTrue(queue.removeAll(List.of(tracks.get(3))));
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	void testIteratorIsReadOnly() {
+		var queue = queueOf(10, tracks(3));
+		var iterator = queue.iterator();
+		iterator.next();
+		assertThrows(UnsupportedOperationException.class, iterator::remove);
+		assertEquals(3, queue.size());
+	}
+
+}
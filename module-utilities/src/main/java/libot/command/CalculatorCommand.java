@@ -15,11 +15,13 @@
  */
 package libot.command;
 
+import static com.google.common.cache.CacheBuilder.newBuilder;
 import static java.lang.Byte.*;
 import static java.lang.System.*;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.Files.exists;
 import static java.nio.file.Paths.get;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.regex.Pattern.*;
 import static java.util.stream.Collectors.joining;
@@ -29,25 +31,30 @@ import static libot.core.argument.ParameterList.Parameter.ParameterType.POSITION
 import static libot.core.command.CommandCategory.UTILITIES;
 import static net.dv8tion.jda.api.utils.FileUpload.fromData;
 import static net.dv8tion.jda.api.utils.MarkdownUtil.*;
-import static org.apache.commons.io.IOUtils.toByteArray;
-import static org.apache.commons.lang3.ArrayUtils.indexOf;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.io.IOException;
+import java.io.*;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.*;
 
 import javax.annotation.*;
 
+import org.apache.commons.lang3.mutable.MutableObject;
 import org.slf4j.Logger;
 
+import com.google.common.cache.Cache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import libot.core.argument.ParameterList.MandatoryParameter;
 import libot.core.command.*;
 import libot.core.command.exception.CommandException;
 import libot.core.entity.CommandContext;
 import libot.core.extension.EmbedPrebuilder;
+import libot.listener.CalculatorRateUpdaterListener;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
@@ -107,6 +114,21 @@ public class CalculatorCommand extends Command {
 	private static final Pattern REGEX_MODE = compile("mode\\s+(\\p{IsLatin}+)", UNICODE_CHARACTER_CLASS);
 	private static final Pattern REGEX_NEWLINES = compile("\\\\\\s*\\n\\s*", UNICODE_CHARACTER_CLASS | MULTILINE);
 	private static final Pattern MESSAGE_LINE_MARKER = compile("line \\d+: |-{3,}");
+	private static final Pattern REGEX_WHITESPACE = compile("[ \\t]+");
+	// qalculate splits names from numbers, so "5USD" is a currency but "USDX" and "runtime" aren't
+	private static final String TOKEN_START = "(?<![\\p{L}_])";
+	private static final String TOKEN_END = "(?![\\p{L}\\p{N}_])";
+	private static final Pattern REGEX_UNCACHEABLE =
+		compile(TOKEN_START + "(?:now|today|yesterday|tomorrow|time|timestamp|uptime|date\\w*|rand\\w*|\\w*lunarphase)"
+				+ TOKEN_END, CASE_INSENSITIVE | UNICODE_CHARACTER_CLASS);
+	private static final String CURRENCY_NAMES = "currency|dollars?|euros?|pounds?|yen|yuan|francs?|rupees?|roubles?"
+												 + "|rubles?|pesos?|btc|bitcoins?|eth|ether|ethereum|ltc|litecoins?";
+	// qalculate accepts lowercase codes too, so words that happen to be codes (cup, all, top) only cost a shorter
+	// cache expiry, while a missed currency would keep serving stale rates
+	private static final Pattern REGEX_CURRENCY =
+		compile("\\p{Sc}|" + TOKEN_START + "(?:" + CURRENCY_NAMES + "|"
+				+ Currency.getAvailableCurrencies().stream().map(Currency::getCurrencyCode).collect(joining("|"))
+				+ ")" + TOKEN_END, CASE_INSENSITIVE | UNICODE_CHARACTER_CLASS);
 
 	private static final String EMOJI_INFO = "\u2139\uFE0F";
 	private static final String EMOJI_WARN = "\u26A0\uFE0F";
@@ -123,11 +145,39 @@ public class CalculatorCommand extends Command {
 	private static final byte LEVEL_ERROR = 0x03;
 
 	private static final int EXIT_TIMEOUT = 102;
+	private static final ScheduledExecutorService WATCHDOG = newSingleThreadScheduledExecutor(
+		new ThreadFactoryBuilder().setNameFormat("calculator-watchdog").setDaemon(true).build());
 
 	private static record QalcMessage(byte level, @Nonnull String message) {}
 
 	private static record Result(@Nonnull String value) {}
 
+	private static record CalculationKey(@Nonnull String expression, int modes, int base) {}
+
+	private static record Calculation(@Nullable Result result, @Nonnull List<QalcMessage> messages) {
+
+		private int getWeight() {
+			return (this.result == null ? 0 : this.result.value().length())
+				   + this.messages.stream().mapToInt(m -> m.message().length()).sum();
+		}
+
+	}
+
+	private static final long CACHE_MAX_WEIGHT = 8_000_000; // in characters
+	private static final Cache<CalculationKey, Calculation> CACHE = newCache(Duration.ofDays(1));
+	// exchange rates are refreshed periodically, so entries must not outlive a single update
+	private static final Cache<CalculationKey, Calculation> CURRENCY_CACHE =
+		newCache(Duration.ofMillis(CalculatorRateUpdaterListener.UPDATE_INTERVAL));
+
+	@Nonnull
+	@SuppressWarnings("null")
+	private static Cache<CalculationKey, Calculation> newCache(@Nonnull Duration expiry) {
+		return newBuilder().maximumWeight(CACHE_MAX_WEIGHT / 2)
+			.<CalculationKey, Calculation>weigher((k, v) -> k.expression().length() + v.getWeight())
+			.expireAfterWrite(expiry)
+			.build();
+	}
+
 	@Nonnull
 	@SuppressWarnings("null")
 	private static String getModes(@Nonnull String expression, @Nonnull List<QalcMessage> messages,
@@ -259,45 +309,73 @@ public class CalculatorCommand extends Command {
 	@SuppressWarnings("null")
 	private static Result evaluate(@Nonnull CommandContext c, @Nonnull List<QalcMessage> messages, String expression,
 								   @Nonnull Set<Mode> modes, int base) throws IOException, InterruptedException {
-		byte[] output = runCalculatorProcess(c, expression, modes, base);
-
-		int i = -1;
-		String value = null;
-		while (i != output.length - 1) {
-			int next = indexOf(output, SEPARATOR, i + 1);
-			switch (output[i + 1]) {
-				case TYPE_RESULT -> value = new String(output, i + 2, next - i - 2, UTF_8);
-				case TYPE_MESSAGE -> messages
-					.add(new QalcMessage(output[i + 2],
-										 new String(output, i + 3, next - i - 3, UTF_8).replace('`', '\'')));
-
-				default -> {
-					if (LOG.isErrorEnabled())
-						LOG.error("Unparsable output! (base64): {}", Base64.getEncoder().encodeToString(output));
-					throw fatal(c);
-				}
-			}
-			i = next == -1 ? output.length - 1 : next;
+		var key = new CalculationKey(REGEX_WHITESPACE.matcher(expression.strip()).replaceAll(" "),
+									 Mode.toBits(modes), base);
+		var cache = REGEX_CURRENCY.matcher(key.expression()).find() ? CURRENCY_CACHE : CACHE;
+		var cached = cache.getIfPresent(key);
+		if (cached != null) {
+			messages.addAll(cached.messages());
+			return cached.result();
 		}
-		if (value == null)
-			return null;
-		else
-			return new Result(value.replace("```", "'''"));
+
+		int messagesStart = messages.size();
+		var value = runCalculatorProcess(c, messages, expression, modes, base);
+
+		var result = value == null ? null : new Result(value.replace("```", "'''"));
+
+		// time-dependent and random expressions don't always evaluate to the same thing
+		if (!REGEX_UNCACHEABLE.matcher(key.expression()).find()) {
+			var evaluationMessages = List.copyOf(messages.subList(messagesStart, messages.size()));
+			cache.put(key, new Calculation(result, evaluationMessages));
+		}
+
+		return result;
 	}
 
-	@Nonnull
+	/**
+	 * Removes cached results of expressions that might depend on exchange rates.
+	 */
+	public static void invalidateCurrencies() {
+		CURRENCY_CACHE.invalidateAll();
+	}
+
+	// the records are parsed as they're streamed in rather than after the helper exits, so a large output can't
+	// fill up the pipe and stall the helper until it times out
+	@Nullable
 	@SuppressWarnings("null")
-	private static byte[] runCalculatorProcess(@Nonnull CommandContext c, String expression, @Nonnull Set<Mode> modes,
+	private static String runCalculatorProcess(@Nonnull CommandContext c, @Nonnull List<QalcMessage> messages,
+											   String expression, @Nonnull Set<Mode> modes,
 											   int base) throws IOException, InterruptedException {
 		var p = executeQalculate(expression, Integer.toString(Mode.toBits(modes)), Integer.toString(base));
+		var watchdog = WATCHDOG.schedule(p::destroyForcibly, TIMEOUT_EVALUATE, SECONDS);
+		var value = new MutableObject<String>();
+		boolean timedOut;
+		try (var stdout = new BufferedInputStream(p.getInputStream())) {
+			var record = new ByteArrayOutputStream();
+			int b;
+			while ((b = stdout.read()) != -1) {
+				if (b != SEPARATOR) {
+					record.write(b);
+
+				} else {
+					parseRecord(c, watchdog, record.toByteArray(), messages, value);
+					record.reset();
+				}
+			}
+			if (record.size() != 0)
+				parseRecord(c, watchdog, record.toByteArray(), messages, value);
+
+			p.waitFor();
 
-		if (!p.waitFor(TIMEOUT_EVALUATE, SECONDS) || p.exitValue() == EXIT_TIMEOUT) {
+		} finally {
+			timedOut = !watchdog.cancel(false); // the watchdog has already killed the helper
 			if (p.isAlive())
 				p.destroyForcibly();
-
-			throw c.error("Evaluation took too long, please use a simpler expression", DISABLED);
 		}
 
+		if (timedOut || p.exitValue() == EXIT_TIMEOUT)
+			throw timeout(c);
+
 		if (p.exitValue() != 0) {
 			if (LOG.isWarnEnabled()) {
 				LOG.error("Expression caused non-zero exit {}: (base64) {}", p.exitValue(),
@@ -307,8 +385,27 @@ public class CalculatorCommand extends Command {
 			throw fatal(c);
 		}
 
-		try (var stdout = p.getInputStream()) {
-			return toByteArray(stdout);
+		return value.getValue();
+	}
+
+	@SuppressWarnings("null")
+	private static void parseRecord(@Nonnull CommandContext c, @Nonnull Future<?> watchdog, @Nonnull byte[] record,
+									@Nonnull List<QalcMessage> messages, @Nonnull MutableObject<String> value) {
+		var type = record.length == 0 ? SEPARATOR : record[0];
+		switch (type) {
+			case TYPE_RESULT -> value.setValue(new String(record, 1, record.length - 1, UTF_8));
+			case TYPE_MESSAGE -> messages
+				.add(new QalcMessage(record[1], new String(record, 2, record.length - 2, UTF_8).replace('`', '\'')));
+
+			default -> {
+				// a record cut off by the watchdog is expected
+				if (watchdog.isDone())
+					throw timeout(c);
+
+				if (LOG.isErrorEnabled())
+					LOG.error("Unparsable output! (base64): {}", Base64.getEncoder().encodeToString(record));
+				throw fatal(c);
+			}
 		}
 	}
 
@@ -360,6 +457,11 @@ public class CalculatorCommand extends Command {
 		return new EmbedPrebuilder(text, color).build();
 	}
 
+	@Nonnull
+	private static CommandException timeout(@Nonnull CommandContext c) {
+		return c.error("Evaluation took too long, please use a simpler expression", DISABLED);
+	}
+
 	@Nonnull
 	private static CommandException fatal(@Nonnull CommandContext c) {
 		return c.error("Failed to evaluate the expression", FAILURE);
@@ -32,7 +32,7 @@ import libot.core.entity.BotContext;
 public class CalculatorRateUpdaterListener implements BotEventListener {
 
 	private static final Logger LOG = getLogger(CalculatorRateUpdaterListener.class);
-	private static final long UPDATE_INTERVAL = HOURS.toMillis(1);
+	public static final long UPDATE_INTERVAL = HOURS.toMillis(1);
 	private static final long UPDATE_TIMEOUT = MINUTES.toMillis(5);
 
 	@Override
@@ -62,6 +62,8 @@ public class CalculatorRateUpdaterListener implements BotEventListener {
 
 		if (p.exitValue() != 0)
 			LOG.warn("Updating rates caused non-zero exit {}", p.exitValue());
+		else
+			CalculatorCommand.invalidateCurrencies();
 	}
 
 }